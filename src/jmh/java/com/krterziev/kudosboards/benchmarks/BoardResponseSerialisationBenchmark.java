@@ -0,0 +1,43 @@
+package com.krterziev.kudosboards.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krterziev.kudosboards.payload.response.BoardResponse;
+import com.krterziev.kudosboards.transformers.ResponseTransformer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serialises a {@link BoardResponse} with an object mapper built the way Spring Boot builds the
+ * one used by the HTTP message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoardResponseSerialisationBenchmark {
+
+  @Param({"10", "100", "1000", "10000"})
+  private int messages;
+
+  private ObjectMapper objectMapper;
+  private BoardResponse boardResponse;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    boardResponse = ResponseTransformer.toBoardResponse(Fixtures.board(messages));
+  }
+
+  @Benchmark
+  public byte[] writeValueAsBytes() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(boardResponse);
+  }
+}
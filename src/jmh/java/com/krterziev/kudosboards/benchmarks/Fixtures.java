@@ -0,0 +1,49 @@
+package com.krterziev.kudosboards.benchmarks;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.ERole;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.Role;
+import com.krterziev.kudosboards.models.User;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.bson.types.ObjectId;
+
+/**
+ * In-memory documents shaped like the ones the application reads from Mongo, so that the
+ * benchmarks measure mapping and serialisation without a database.
+ */
+final class Fixtures {
+
+  private Fixtures() {
+  }
+
+  static User user() {
+    final User user = new User("user", "user@example.com",
+        "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3Ld2yWfKXAcYPMRwHfC6xC.");
+    user.setId(new ObjectId().toHexString());
+    final Role role = new Role(ERole.ROLE_USER);
+    role.setId(new ObjectId().toHexString());
+    user.setRoles(Set.of(role));
+    return user;
+  }
+
+  static Board board(final int messageCount) {
+    final User author = user();
+    final List<Message> messages = new ArrayList<>(messageCount);
+    for (int i = 0; i < messageCount; i++) {
+      final Message message = new Message(null, "Thank you for all the help with release " + i,
+          "https://example.com/images/" + i + ".png", Instant.now(), author);
+      message.setId(new ObjectId().toHexString());
+      messages.add(message);
+    }
+    final Board board = new Board("Team kudos", messages, List.of(author),
+        EBoardAccessLevel.PUBLIC);
+    board.setId(new ObjectId().toHexString());
+    messages.forEach(message -> message.setBoardId(board.getId()));
+    return board;
+  }
+}
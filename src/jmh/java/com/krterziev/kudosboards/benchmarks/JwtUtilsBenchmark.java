@@ -0,0 +1,68 @@
+package com.krterziev.kudosboards.benchmarks;
+
+import com.krterziev.kudosboards.security.jwt.JwtUtils;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Measures token generation and compares the previous token check, which parsed and verified
+ * every token twice with a key derived from the string secret on each call, with the
+ * single-pass verification in {@link JwtUtils}, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtUtilsBenchmark {
+
+  private static final String SECRET = "krTerzievSecretKey";
+  private static final int EXPIRATION_MS = 86400000;
+  private static final long REFRESH_EXPIRATION_MS = 604800000L;
+
+  private JwtUtils uncachedJwtUtils;
+  private JwtUtils cachedJwtUtils;
+  private UsernamePasswordAuthenticationToken authentication;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    uncachedJwtUtils = new JwtUtils(SECRET, EXPIRATION_MS, REFRESH_EXPIRATION_MS, 0);
+    cachedJwtUtils = new JwtUtils(SECRET, EXPIRATION_MS, REFRESH_EXPIRATION_MS, 10000);
+    final UserDetailsImpl user = new UserDetailsImpl("id", "user", "user@example.com", "password",
+        List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    token = uncachedJwtUtils.generateJwtToken(authentication);
+  }
+
+  @Benchmark
+  public String generate() {
+    return uncachedJwtUtils.generateJwtToken(authentication);
+  }
+
+  @Benchmark
+  public String doubleParse() {
+    Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token);
+    return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody().getSubject();
+  }
+
+  @Benchmark
+  public Claims singlePass() {
+    return uncachedJwtUtils.parseVerifiedClaims(token).orElseThrow();
+  }
+
+  @Benchmark
+  public Claims singlePassCached() {
+    return cachedJwtUtils.parseVerifiedClaims(token).orElseThrow();
+  }
+}
@@ -0,0 +1,35 @@
+package com.krterziev.kudosboards.benchmarks;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.payload.response.BoardResponse;
+import com.krterziev.kudosboards.transformers.ResponseTransformer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseTransformerBenchmark {
+
+  @Param({"10", "100", "1000", "10000"})
+  private int messages;
+
+  private Board board;
+
+  @Setup
+  public void setUp() {
+    board = Fixtures.board(messages);
+  }
+
+  @Benchmark
+  public BoardResponse toBoardResponse() {
+    return ResponseTransformer.toBoardResponse(board);
+  }
+}
@@ -0,0 +1,30 @@
+package com.krterziev.kudosboards.benchmarks;
+
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserDetailsBenchmark {
+
+  private User user;
+
+  @Setup
+  public void setUp() {
+    user = Fixtures.user();
+  }
+
+  @Benchmark
+  public UserDetailsImpl build() {
+    return UserDetailsImpl.build(user);
+  }
+}
@@ -0,0 +1,56 @@
+package com.krterziev.kudosboards.loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histogram and error count of one endpoint.
+ */
+class EndpointStats {
+
+  private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+  private final LongAdder errors = new LongAdder();
+
+  void record(final long startNanos, final boolean success) {
+    final long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    latencies.recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+    if (!success) {
+      errors.increment();
+    }
+  }
+
+  long count() {
+    return latencies.getTotalCount();
+  }
+
+  double meanMillis() {
+    return millis(Math.round(latencies.getMean()));
+  }
+
+  void reset() {
+    latencies.reset();
+    errors.reset();
+  }
+
+  static void printHeader(final PrintStream out) {
+    out.printf("%-40s %9s %7s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors",
+        "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+  }
+
+  void print(final PrintStream out, final String endpoint, final double seconds) {
+    final long count = count();
+    out.printf("%-40s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", endpoint, count,
+        errors.sum(), count / seconds, millis(latencies.getValueAtPercentile(50)),
+        millis(latencies.getValueAtPercentile(90)), millis(latencies.getValueAtPercentile(99)),
+        millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()));
+  }
+
+  private static double millis(final long micros) {
+    return micros / 1000.0;
+  }
+}
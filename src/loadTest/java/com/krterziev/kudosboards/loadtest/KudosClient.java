@@ -0,0 +1,122 @@
+package com.krterziev.kudosboards.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thin HTTP client for the endpoints exercised by the load test.
+ */
+class KudosClient {
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final String baseUrl;
+
+  KudosClient(final int port) {
+    this.baseUrl = "http://localhost:" + port;
+  }
+
+  HttpResponse<String> signUp(final String username, final String password) throws IOException,
+      InterruptedException {
+    return send("POST", "/api/auth/signup", null, Map.of("username", username,
+        "email", username + "@example.com", "password", password));
+  }
+
+  HttpResponse<String> signIn(final String username, final String password) throws IOException,
+      InterruptedException {
+    return send("POST", "/api/auth/signin", null,
+        Map.of("username", username, "password", password));
+  }
+
+  String accessToken(final HttpResponse<String> signInResponse) throws IOException {
+    final JsonNode body = objectMapper.readTree(signInResponse.body());
+    return body.get("accessToken").asText();
+  }
+
+  HttpResponse<String> createBoard(final String token, final String name) throws IOException,
+      InterruptedException {
+    return send("POST", "/api/boards", token, Map.of("name", name, "accessLevel", "PUBLIC"));
+  }
+
+  HttpResponse<String> listBoards(final String token) throws IOException, InterruptedException {
+    return send("GET", "/api/boards", token, null);
+  }
+
+  HttpResponse<String> getBoard(final String token, final String boardPath) throws IOException,
+      InterruptedException {
+    return send("GET", boardPath, token, null);
+  }
+
+  HttpResponse<String> createMessage(final String token, final String boardPath,
+      final String text) throws IOException, InterruptedException {
+    return send("POST", boardPath + "/messages", token, Map.of("text", text));
+  }
+
+  HttpResponse<String> createMessages(final String token, final String boardPath,
+      final List<String> texts) throws IOException, InterruptedException {
+    return send("POST", boardPath + "/messages/batch", token, Map.of("messages",
+        texts.stream().map(text -> Map.of("text", text)).toList()));
+  }
+
+  /**
+   * Locations of the messages created by a batch request.
+   */
+  List<String> locations(final HttpResponse<String> batchResponse) throws IOException {
+    final List<String> locations = new ArrayList<>();
+    for (final JsonNode result : objectMapper.readTree(batchResponse.body()).get("results")) {
+      if (result.hasNonNull("location")) {
+        locations.add(result.get("location").asText());
+      }
+    }
+    return locations;
+  }
+
+  HttpResponse<String> updateMessage(final String token, final String messagePath,
+      final String text) throws IOException, InterruptedException {
+    return send("PUT", messagePath, token, Map.of("text", text));
+  }
+
+  HttpResponse<String> deleteMessage(final String token, final String messagePath)
+      throws IOException, InterruptedException {
+    return send("DELETE", messagePath, token, null);
+  }
+
+  static String location(final HttpResponse<String> response) {
+    return response.headers().firstValue("Location").orElseThrow(
+        () -> new IllegalStateException(
+            "Expected a Location header, got " + response.statusCode()));
+  }
+
+  static boolean isSuccess(final HttpResponse<?> response) {
+    return response.statusCode() >= 200 && response.statusCode() < 300;
+  }
+
+  private HttpResponse<String> send(final String method, final String path, final String token,
+      final Object body) throws IOException, InterruptedException {
+    final HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .timeout(Duration.ofSeconds(30))
+        .method(method, body == null ? BodyPublishers.noBody()
+            : BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    if (body != null) {
+      request.header("Content-Type", "application/json");
+    }
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return httpClient.send(request.build(), BodyHandlers.ofString());
+  }
+}
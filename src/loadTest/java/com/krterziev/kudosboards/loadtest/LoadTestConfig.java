@@ -0,0 +1,60 @@
+package com.krterziev.kudosboards.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test settings, read from {@code loadtest.*} system properties.
+ *
+ * <p>The request mix is a comma separated list of {@code operation=weight} pairs, for example
+ * {@code loadtest.mix=LIST_BOARDS=50,GET_BOARD=30,CREATE_MESSAGE=20}.
+ *
+ * <p>{@code loadtest.executors} lists the request executors to compare, each run against a fresh
+ * application, and {@code loadtest.mongoLatencyMs} adds a delay to every Mongo command. For
+ * example {@code -Dloadtest.executors=PLATFORM,VIRTUAL -Dloadtest.mongoLatencyMs=50
+ * -Dloadtest.threads=800} compares throughput on platform and virtual threads against a slow
+ * Mongo.
+ *
+ * <p>{@code loadtest.batchSize} is the number of messages sent by each
+ * {@code CREATE_MESSAGE_BATCH} request. Running it alongside {@code CREATE_MESSAGE}, for example
+ * with {@code -Dloadtest.mix=CREATE_MESSAGE=50,CREATE_MESSAGE_BATCH=50}, reports how many more
+ * messages per second the batch endpoint creates.
+ */
+record LoadTestConfig(int users, int boards, int messagesPerBoard, int threads,
+                      int warmupSeconds, int durationSeconds, Map<Operation, Integer> mix,
+                      List<RequestExecutor> executors, long mongoLatencyMs, int batchSize) {
+
+  private static final String DEFAULT_MIX = "SIGN_IN=5,LIST_BOARDS=35,GET_BOARD=35,"
+      + "CREATE_MESSAGE=15,UPDATE_MESSAGE=5,DELETE_MESSAGE=5";
+
+  static LoadTestConfig fromSystemProperties() {
+    return new LoadTestConfig(
+        Integer.getInteger("loadtest.users", 20),
+        Integer.getInteger("loadtest.boards", 10),
+        Integer.getInteger("loadtest.messagesPerBoard", 100),
+        Integer.getInteger("loadtest.threads", 16),
+        Integer.getInteger("loadtest.warmupSeconds", 10),
+        Integer.getInteger("loadtest.durationSeconds", 30),
+        parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+        parseExecutors(System.getProperty("loadtest.executors", "PLATFORM")),
+        Long.getLong("loadtest.mongoLatencyMs", 0),
+        Integer.getInteger("loadtest.batchSize", 20));
+  }
+
+  private static Map<Operation, Integer> parseMix(final String mix) {
+    final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (final String entry : mix.split(",")) {
+      final String[] parts = entry.trim().split("=");
+      weights.put(Operation.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+    }
+    return weights;
+  }
+
+  private static List<RequestExecutor> parseExecutors(final String executors) {
+    return Arrays.stream(executors.split(","))
+        .map(executor -> RequestExecutor.valueOf(executor.trim()))
+        .toList();
+  }
+}
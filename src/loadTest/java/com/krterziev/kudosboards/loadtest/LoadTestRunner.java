@@ -0,0 +1,228 @@
+package com.krterziev.kudosboards.loadtest;
+
+import com.krterziev.kudosboards.KudosBoardsApplication;
+import com.krterziev.kudosboards.models.ERole;
+import com.krterziev.kudosboards.models.Role;
+import com.krterziev.kudosboards.repository.RoleRepository;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application against an embedded Mongo, seeds users, boards and messages, and then
+ * drives a weighted mix of requests from a pool of client threads, reporting latency percentiles
+ * and throughput per endpoint.
+ *
+ * <p>Run it with {@code ./gradlew loadTest}; see {@link LoadTestConfig} for the settings.
+ */
+public class LoadTestRunner {
+
+  private static final String PASSWORD = "load-test-password";
+
+  private final LoadTestConfig config;
+  private final KudosClient client;
+  private final List<SeededUser> users = new ArrayList<>();
+  private final List<String> boardPaths = new ArrayList<>();
+  private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+  private final List<Operation> weightedOperations = new ArrayList<>();
+
+  LoadTestRunner(final LoadTestConfig config, final int port) {
+    this.config = config;
+    this.client = new KudosClient(port);
+    for (final Operation operation : Operation.values()) {
+      stats.put(operation, new EndpointStats());
+    }
+    config.mix().forEach((operation, weight) -> {
+      for (int i = 0; i < weight; i++) {
+        weightedOperations.add(operation);
+      }
+    });
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+    final Map<RequestExecutor, Double> throughput = new EnumMap<>(RequestExecutor.class);
+    for (final RequestExecutor executor : config.executors()) {
+      throughput.put(executor, run(config, executor, args));
+    }
+    if (throughput.size() > 1) {
+      System.out.printf("%nTotal throughput with %d client threads and %dms Mongo latency%n",
+          config.threads(), config.mongoLatencyMs());
+      throughput.forEach((executor, requestsPerSecond) ->
+          System.out.printf("%-10s %9.1f req/s%n", executor, requestsPerSecond));
+    }
+  }
+
+  private static double run(final LoadTestConfig config, final RequestExecutor executor,
+      final String[] args) throws Exception {
+    System.out.printf("%nStarting the application on %s threads%n", executor);
+    final MongoLatencyInjector latencyInjector = new MongoLatencyInjector();
+    final ConfigurableApplicationContext context =
+        new SpringApplicationBuilder(KudosBoardsApplication.class)
+            .properties("server.port=0",
+                "spring.mongodb.embedded.version=5.0.5",
+                "spring.data.mongodb.port=0",
+                "spring.data.mongodb.database=kudos_load_test",
+                executor.property())
+            .initializers(applicationContext -> applicationContext.getBeanFactory()
+                .registerSingleton("mongoLatencyCustomizer",
+                    (MongoClientSettingsBuilderCustomizer) settings ->
+                        settings.addCommandListener(latencyInjector)))
+            .run(args);
+    try {
+      seedRoles(context.getBean(RoleRepository.class));
+      final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      final LoadTestRunner runner = new LoadTestRunner(config, port);
+      runner.seed();
+      latencyInjector.enable(config.mongoLatencyMs());
+      return runner.run();
+    } finally {
+      context.close();
+    }
+  }
+
+  private static void seedRoles(final RoleRepository roleRepository) {
+    for (final ERole role : ERole.values()) {
+      if (roleRepository.findByName(role).isEmpty()) {
+        roleRepository.save(new Role(role));
+      }
+    }
+  }
+
+  void seed() throws Exception {
+    System.out.printf("Seeding %d users, %d boards and %d messages per board%n", config.users(),
+        config.boards(), config.messagesPerBoard());
+    for (int i = 0; i < config.users(); i++) {
+      final String username = "load" + i;
+      client.signUp(username, PASSWORD);
+      users.add(new SeededUser(username, client.accessToken(client.signIn(username, PASSWORD))));
+    }
+    for (int i = 0; i < config.boards(); i++) {
+      final SeededUser owner = users.get(i % users.size());
+      final String boardPath = KudosClient.location(
+          client.createBoard(owner.token(), "Load test board " + i));
+      boardPaths.add(boardPath);
+      for (int j = 0; j < config.messagesPerBoard(); j++) {
+        final SeededUser author = users.get(j % users.size());
+        author.messagePaths().add(KudosClient.location(
+            client.createMessage(author.token(), boardPath, "Seeded kudos " + j)));
+      }
+    }
+  }
+
+  double run() throws InterruptedException {
+    System.out.printf("Warming up for %ds with %d threads%n", config.warmupSeconds(),
+        config.threads());
+    drive(config.warmupSeconds());
+    stats.values().forEach(EndpointStats::reset);
+
+    System.out.printf("Measuring for %ds%n", config.durationSeconds());
+    drive(config.durationSeconds());
+
+    EndpointStats.printHeader(System.out);
+    stats.forEach((operation, endpointStats) -> endpointStats.print(System.out,
+        operation.endpoint(), config.durationSeconds()));
+    printMessageCreationRates();
+    return stats.values().stream().mapToLong(EndpointStats::count).sum()
+        / (double) config.durationSeconds();
+  }
+
+  /**
+   * Compares how fast one client creates messages one at a time and in batches, from the mean
+   * latency of each endpoint.
+   */
+  private void printMessageCreationRates() {
+    final EndpointStats single = stats.get(Operation.CREATE_MESSAGE);
+    final EndpointStats batch = stats.get(Operation.CREATE_MESSAGE_BATCH);
+    if (single.count() == 0 || batch.count() == 0) {
+      return;
+    }
+    final double singleRate = 1000 / single.meanMillis();
+    final double batchRate = config.batchSize() * 1000 / batch.meanMillis();
+    System.out.printf("%nMessages created per second per client: %.1f one at a time, "
+        + "%.1f in batches of %d (%.1fx)%n", singleRate, batchRate, config.batchSize(),
+        batchRate / singleRate);
+  }
+
+  private void drive(final int seconds) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+    final ExecutorService workers = Executors.newFixedThreadPool(config.threads());
+    for (int i = 0; i < config.threads(); i++) {
+      workers.execute(() -> {
+        while (System.nanoTime() < deadline) {
+          final Operation operation = weightedOperations.get(
+              ThreadLocalRandom.current().nextInt(weightedOperations.size()));
+          execute(operation);
+        }
+      });
+    }
+    workers.shutdown();
+    workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+  }
+
+  private void execute(final Operation operation) {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final SeededUser user = users.get(random.nextInt(users.size()));
+    final String boardPath = boardPaths.get(random.nextInt(boardPaths.size()));
+    final long start = System.nanoTime();
+    try {
+      final HttpResponse<String> response = switch (operation) {
+        case SIGN_IN -> client.signIn(user.username(), PASSWORD);
+        case LIST_BOARDS -> client.listBoards(user.token());
+        case GET_BOARD -> client.getBoard(user.token(), boardPath);
+        case CREATE_MESSAGE -> {
+          final HttpResponse<String> created =
+              client.createMessage(user.token(), boardPath, "Kudos from " + user.username());
+          if (KudosClient.isSuccess(created)) {
+            user.messagePaths().add(KudosClient.location(created));
+          }
+          yield created;
+        }
+        case CREATE_MESSAGE_BATCH -> {
+          final HttpResponse<String> created = client.createMessages(user.token(), boardPath,
+              Collections.nCopies(config.batchSize(), "Kudos from " + user.username()));
+          if (KudosClient.isSuccess(created)) {
+            user.messagePaths().addAll(client.locations(created));
+          }
+          yield created;
+        }
+        case UPDATE_MESSAGE -> {
+          final String messagePath = user.messagePaths().peek();
+          yield messagePath == null ? null
+              : client.updateMessage(user.token(), messagePath, "Updated kudos");
+        }
+        case DELETE_MESSAGE -> {
+          final String messagePath = user.messagePaths().poll();
+          yield messagePath == null ? null : client.deleteMessage(user.token(), messagePath);
+        }
+      };
+      if (response != null) {
+        stats.get(operation).record(start, KudosClient.isSuccess(response));
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (Exception ex) {
+      stats.get(operation).record(start, false);
+    }
+  }
+
+  private record SeededUser(String username, String token, Queue<String> messagePaths) {
+
+    SeededUser(final String username, final String token) {
+      this(username, token, new ConcurrentLinkedQueue<>());
+    }
+  }
+}
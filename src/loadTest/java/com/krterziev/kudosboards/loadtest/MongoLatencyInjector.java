@@ -0,0 +1,34 @@
+package com.krterziev.kudosboards.loadtest;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delays every Mongo command to simulate a distant or overloaded server.
+ *
+ * <p>The synchronous driver calls listeners on the requesting thread while it holds the pooled
+ * connection, so the delay blocks the request thread and keeps the connection busy, as a slow
+ * server would. It is switched on only after seeding so that setup stays fast.
+ */
+class MongoLatencyInjector implements CommandListener {
+
+  private volatile long latencyMillis;
+
+  void enable(final long latencyMillis) {
+    this.latencyMillis = latencyMillis;
+  }
+
+  @Override
+  public void commandStarted(final CommandStartedEvent event) {
+    final long millis = latencyMillis;
+    if (millis <= 0) {
+      return;
+    }
+    try {
+      TimeUnit.MILLISECONDS.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.krterziev.kudosboards.loadtest;
+
+enum Operation {
+  SIGN_IN("POST /api/auth/signin"),
+  LIST_BOARDS("GET /api/boards"),
+  GET_BOARD("GET /api/boards/{id}"),
+  CREATE_MESSAGE("POST /api/boards/{id}/messages"),
+  CREATE_MESSAGE_BATCH("POST /api/boards/{id}/messages/batch"),
+  UPDATE_MESSAGE("PUT /api/boards/{id}/messages/{id}"),
+  DELETE_MESSAGE("DELETE /api/boards/{id}/messages/{id}");
+
+  private final String endpoint;
+
+  Operation(final String endpoint) {
+    this.endpoint = endpoint;
+  }
+
+  String endpoint() {
+    return endpoint;
+  }
+}
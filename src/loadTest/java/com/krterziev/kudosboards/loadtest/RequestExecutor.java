@@ -0,0 +1,19 @@
+package com.krterziev.kudosboards.loadtest;
+
+/**
+ * Thread model the application under test handles requests on.
+ */
+enum RequestExecutor {
+  PLATFORM(false),
+  VIRTUAL(true);
+
+  private final boolean virtualThreads;
+
+  RequestExecutor(final boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  String property() {
+    return "krterziev.app.virtualThreads.enabled=" + virtualThreads;
+  }
+}
@@ -0,0 +1,11 @@
+package com.krterziev.kudosboards.blobs;
+
+import java.time.Instant;
+
+/**
+ * A stored blob. The id is the hex SHA-256 of the content, so it doubles as a strong ETag and
+ * the content behind an id never changes.
+ */
+public record BlobInfo(String id, String contentType, long length, Instant uploaded) {
+
+}
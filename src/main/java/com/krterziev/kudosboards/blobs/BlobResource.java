@@ -0,0 +1,51 @@
+package com.krterziev.kudosboards.blobs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * Exposes a stored blob as a {@link org.springframework.core.io.Resource} so that Spring MVC
+ * can stream it and serve {@code Range} requests from it. The content is opened afresh on each
+ * call to {@link #getInputStream()}.
+ */
+public class BlobResource extends AbstractResource {
+
+  private final BlobStore blobStore;
+  private final BlobInfo blob;
+
+  public BlobResource(final BlobStore blobStore, final BlobInfo blob) {
+    this.blobStore = blobStore;
+    this.blob = blob;
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    return blobStore.open(blob);
+  }
+
+  @Override
+  public boolean exists() {
+    return true;
+  }
+
+  @Override
+  public long contentLength() {
+    return blob.length();
+  }
+
+  @Override
+  public long lastModified() {
+    return blob.uploaded().toEpochMilli();
+  }
+
+  @Override
+  public String getFilename() {
+    return blob.id();
+  }
+
+  @Override
+  public String getDescription() {
+    return "Blob [" + blob.id() + "]";
+  }
+}
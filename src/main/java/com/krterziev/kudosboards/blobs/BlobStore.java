@@ -0,0 +1,23 @@
+package com.krterziev.kudosboards.blobs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for binary message attachments.
+ */
+public interface BlobStore {
+
+  /**
+   * Streams {@code content} into the store without buffering it in memory. Storing content that
+   * is already present returns the existing blob instead of a second copy.
+   */
+  BlobInfo store(InputStream content, String contentType) throws IOException;
+
+  Optional<BlobInfo> find(String id);
+
+  boolean exists(String id);
+
+  InputStream open(BlobInfo blob) throws IOException;
+}
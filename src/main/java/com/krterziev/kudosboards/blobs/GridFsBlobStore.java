@@ -0,0 +1,120 @@
+package com.krterziev.kudosboards.blobs;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSUploadStream;
+import com.mongodb.client.gridfs.model.GridFSDownloadOptions;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps blobs in a GridFS bucket, named by the SHA-256 of their content.
+ *
+ * <p>Uploads are copied chunk by chunk into GridFS while the hash is computed, so the content
+ * is never held in memory. Once the hash is known the new file either takes it as its name, or
+ * is dropped again if a file with that name already exists. Two concurrent uploads of the same
+ * content may both keep their copy; lookups then serve the oldest one and the other is unused.
+ */
+@Component
+public class GridFsBlobStore implements BlobStore {
+
+  private static final String CONTENT_TYPE = "contentType";
+
+  private final GridFSBucket bucket;
+
+  @Autowired
+  public GridFsBlobStore(final MongoTemplate mongoTemplate,
+      @Value("${krterziev.app.images.bucket:images}") final String bucketName,
+      @Value("${krterziev.app.images.chunkSizeBytes:261120}") final int chunkSizeBytes) {
+    this.bucket = GridFSBuckets.create(mongoTemplate.getDb(), bucketName)
+        .withChunkSizeBytes(chunkSizeBytes);
+  }
+
+  @Override
+  public BlobInfo store(final InputStream content, final String contentType)
+      throws IOException {
+    final MessageDigest digest = sha256();
+    final GridFSUploadOptions options = new GridFSUploadOptions()
+        .metadata(new Document(CONTENT_TYPE, contentType));
+    final GridFSUploadStream upload = bucket.openUploadStream(
+        "upload-" + new ObjectId().toHexString(), options);
+    try (DigestInputStream in = new DigestInputStream(content, digest)) {
+      in.transferTo(upload);
+    } catch (IOException | RuntimeException ex) {
+      upload.abort();
+      throw ex;
+    }
+    upload.close();
+
+    final ObjectId uploadId = upload.getObjectId();
+    final String hash = HexFormat.of().formatHex(digest.digest());
+    final Optional<GridFSFile> existing = findFile(hash);
+    if (existing.isPresent()) {
+      bucket.delete(uploadId);
+      return toBlobInfo(existing.get());
+    }
+    bucket.rename(uploadId, hash);
+    return findFile(hash).map(GridFsBlobStore::toBlobInfo)
+        .orElseThrow(() -> new IOException("Stored blob " + hash + " disappeared"));
+  }
+
+  @Override
+  public Optional<BlobInfo> find(final String id) {
+    return findFile(id).map(GridFsBlobStore::toBlobInfo);
+  }
+
+  @Override
+  public boolean exists(final String id) {
+    return findFile(id).isPresent();
+  }
+
+  @Override
+  public InputStream open(final BlobInfo blob) throws IOException {
+    try {
+      return bucket.openDownloadStream(blob.id(), new GridFSDownloadOptions().revision(0));
+    } catch (MongoException ex) {
+      throw new IOException("Cannot open blob " + blob.id(), ex);
+    }
+  }
+
+  private Optional<GridFSFile> findFile(final String id) {
+    if (id == null || id.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(bucket.find(Filters.eq("filename", id))
+        .sort(Sorts.ascending("uploadDate"))
+        .limit(1)
+        .first());
+  }
+
+  private static BlobInfo toBlobInfo(final GridFSFile file) {
+    final Document metadata = file.getMetadata();
+    final String contentType = metadata == null ? null : metadata.getString(CONTENT_TYPE);
+    return new BlobInfo(file.getFilename(), contentType, file.getLength(),
+        file.getUploadDate().toInstant());
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
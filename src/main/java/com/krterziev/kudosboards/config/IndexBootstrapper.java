@@ -0,0 +1,122 @@
+package com.krterziev.kudosboards.config;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the indexes declared on the mapped documents with {@code @Indexed},
+ * {@code @CompoundIndex} and the like, and checks that each of them exists, before the
+ * application starts serving requests.
+ *
+ * <p>Creating an index that already exists with the same keys and options is a no-op, so this
+ * is cheap on every start. An index that cannot be created, because an index with the same keys
+ * but other options already exists or because the collection holds duplicates of a unique key,
+ * fails startup instead of leaving queries to scan whole collections. Spring's own
+ * {@code auto-index-creation} is turned off so that indexes are created in one place.
+ *
+ * <p>Indexes are ensured as soon as this bean is created. Beans that write documents on startup
+ * and rely on a unique index should declare {@code @DependsOn("indexBootstrapper")}.
+ */
+@Component
+public class IndexBootstrapper implements InitializingBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(IndexBootstrapper.class);
+
+  private final MongoTemplate mongoTemplate;
+  private final MongoMappingContext mappingContext;
+
+  @Autowired
+  public IndexBootstrapper(final MongoTemplate mongoTemplate,
+      final MongoMappingContext mappingContext) {
+    this.mongoTemplate = mongoTemplate;
+    this.mappingContext = mappingContext;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    final IndexResolver resolver = IndexResolver.create(mappingContext);
+    int ensured = 0;
+    for (final MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+      if (entity.isAnnotationPresent(Document.class)) {
+        ensured += ensureIndexes(entity, resolver);
+      }
+    }
+    logger.info("Ensured {} indexes", ensured);
+  }
+
+  private int ensureIndexes(final MongoPersistentEntity<?> entity, final IndexResolver resolver) {
+    final Set<String> references = new HashSet<>();
+    entity.doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+      if (property.isDbReference()) {
+        references.add(property.getFieldName());
+      }
+    });
+    final List<IndexDefinition> indexes = new ArrayList<>();
+    for (final IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+      if (!throughReference(index, references)) {
+        indexes.add(index);
+      }
+    }
+    if (indexes.isEmpty()) {
+      return 0;
+    }
+
+    final IndexOperations indexOps = mongoTemplate.indexOps(entity.getCollection());
+    for (final IndexDefinition index : indexes) {
+      try {
+        indexOps.ensureIndex(index);
+      } catch (DataAccessException ex) {
+        throw new IllegalStateException(String.format("Cannot create index %s on %s",
+            index.getIndexKeys().toJson(), entity.getCollection()), ex);
+      }
+    }
+
+    final List<IndexInfo> existing = indexOps.getIndexInfo();
+    for (final IndexDefinition index : indexes) {
+      if (existing.stream().noneMatch(info -> matches(info, index))) {
+        throw new IllegalStateException(String.format("Index %s is missing from %s",
+            index.getIndexKeys().toJson(), entity.getCollection()));
+      }
+    }
+    return indexes.size();
+  }
+
+  /**
+   * Tells whether an index reaches into a referenced document, like {@code createdBy.username}.
+   * Referenced documents are stored in their own collection, where their indexes belong, so only
+   * the reference's own {@code $id} can be indexed on the referencing collection.
+   */
+  private static boolean throughReference(final IndexDefinition index,
+      final Set<String> references) {
+    return index.getIndexKeys().keySet().stream().anyMatch(key -> {
+      final int dot = key.indexOf('.');
+      return dot > 0 && references.contains(key.substring(0, dot))
+          && !key.substring(dot + 1).equals("$id");
+    });
+  }
+
+  private static boolean matches(final IndexInfo info, final IndexDefinition index) {
+    final List<String> keys = info.getIndexFields().stream().map(IndexField::getKey).toList();
+    return keys.equals(List.copyOf(index.getIndexKeys().keySet()))
+        && info.isUnique() == Boolean.TRUE.equals(index.getIndexOptions().get("unique"));
+  }
+}
@@ -0,0 +1,31 @@
+package com.krterziev.kudosboards.config;
+
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pool settings for the Mongo client.
+ *
+ * <p>Once requests run on virtual threads the pool, not the servlet container, bounds how many
+ * requests talk to Mongo at once. Requests beyond {@code maxSize} wait for a connection for up to
+ * {@code maxWaitTimeMs} and then fail, so keep the wait short when virtual threads are enabled.
+ */
+@Configuration
+public class MongoPoolConfig {
+
+  @Bean
+  public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+      @Value("${krterziev.app.mongo.pool.maxSize:100}") final int maxSize,
+      @Value("${krterziev.app.mongo.pool.minSize:0}") final int minSize,
+      @Value("${krterziev.app.mongo.pool.maxConnecting:2}") final int maxConnecting,
+      @Value("${krterziev.app.mongo.pool.maxWaitTimeMs:120000}") final long maxWaitTimeMs) {
+    return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+        .maxSize(maxSize)
+        .minSize(minSize)
+        .maxConnecting(maxConnecting)
+        .maxWaitTime(maxWaitTimeMs, TimeUnit.MILLISECONDS));
+  }
+}
@@ -0,0 +1,43 @@
+package com.krterziev.kudosboards.config;
+
+import java.util.concurrent.Executors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.security.task.DelegatingSecurityContextAsyncTaskExecutor;
+
+/**
+ * Runs Tomcat request processing and the application task executor on virtual threads when
+ * {@code krterziev.app.virtualThreads.enabled} is set.
+ *
+ * <p>Each request still gets its own thread, so the thread-local state the request path relies
+ * on, the {@code SecurityContextHolder}, the request attributes and the Mongo round-trip counter,
+ * keeps working unchanged. Work handed to the task executor is wrapped so that it sees the
+ * caller's security context. Mongo I/O must not run while a monitor is held, or the carrier
+ * thread stays pinned for the whole round trip; see {@code UserCache} for the one place that did.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnProperty(name = "krterziev.app.virtualThreads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+    return protocolHandler -> protocolHandler.setExecutor(Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("http-virtual-", 0).factory()));
+  }
+
+  @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+      AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+  public AsyncTaskExecutor applicationTaskExecutor() {
+    return new DelegatingSecurityContextAsyncTaskExecutor(new TaskExecutorAdapter(
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-virtual-", 0).factory())));
+  }
+}
@@ -4,37 +4,57 @@ import com.krterziev.kudosboards.models.ERole;
 import com.krterziev.kudosboards.models.Role;
 import com.krterziev.kudosboards.models.User;
 import com.krterziev.kudosboards.payload.request.LoginRequest;
+import com.krterziev.kudosboards.payload.request.RefreshTokenRequest;
+import com.krterziev.kudosboards.payload.request.RevokeTokenRequest;
 import com.krterziev.kudosboards.payload.request.SignupRequest;
 import com.krterziev.kudosboards.payload.response.JwtResponse;
 import com.krterziev.kudosboards.payload.response.Response;
-import com.krterziev.kudosboards.repository.RoleRepository;
 import com.krterziev.kudosboards.repository.UserRepository;
 import com.krterziev.kudosboards.security.jwt.JwtUtils;
+import com.krterziev.kudosboards.security.jwt.TokenRevocations;
+import com.krterziev.kudosboards.security.services.RoleRegistry;
+import com.krterziev.kudosboards.security.services.UserCache;
 import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Timed("kudos.api.auth")
 @RequestMapping("/api/auth")
 public class AuthController {
 
+  private static final String BEARER_PREFIX = "Bearer ";
+
   @Autowired
   AuthenticationManager authenticationManager;
 
@@ -42,7 +62,7 @@ public class AuthController {
   UserRepository userRepository;
 
   @Autowired
-  RoleRepository roleRepository;
+  RoleRegistry roleRegistry;
 
   @Autowired
   PasswordEncoder encoder;
@@ -50,42 +70,110 @@ public class AuthController {
   @Autowired
   JwtUtils jwtUtils;
 
+  @Autowired
+  UserCache userCache;
+
+  @Autowired
+  TokenRevocations tokenRevocations;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
   @PostMapping("/signin")
   public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
 
-    Authentication authentication = authenticationManager.authenticate(
-        new UsernamePasswordAuthenticationToken(loginRequest.getUsername(),
-            loginRequest.getPassword()));
+    final Authentication authentication;
+    try {
+      authentication = authenticationManager.authenticate(
+          new UsernamePasswordAuthenticationToken(loginRequest.getUsername(),
+              loginRequest.getPassword()));
+    } catch (AuthenticationException ex) {
+      meterRegistry.counter("kudos.auth.signin", "outcome", "failure").increment();
+      throw ex;
+    }
+    meterRegistry.counter("kudos.auth.signin", "outcome", "success").increment();
 
     SecurityContextHolder.getContext().setAuthentication(authentication);
     String jwt = jwtUtils.generateJwtToken(authentication);
 
     UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-    List<String> roles = userDetails.getAuthorities().stream()
-        .map(GrantedAuthority::getAuthority)
-        .collect(Collectors.toList());
+    return ResponseEntity.ok(toJwtResponse(jwt, jwtUtils.generateRefreshToken(userDetails),
+        userDetails));
+  }
 
-    return ResponseEntity.ok(new JwtResponse(jwt,
-        userDetails.id(),
-        userDetails.getUsername(),
-        userDetails.getEmail(),
-        roles));
+  /**
+   * Exchanges a refresh token for an access token carrying the user's current roles. The user is
+   * read from Mongo rather than from the user cache, so that role changes made on any node apply.
+   */
+  @PostMapping("/refresh")
+  public ResponseEntity<?> refreshToken(
+      @Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+    final String refreshToken = refreshTokenRequest.getRefreshToken();
+    final Optional<UserDetailsImpl> userDetails = jwtUtils.parseRefreshClaims(refreshToken)
+        .filter(claims -> !tokenRevocations.isRevoked(claims.getId()))
+        .flatMap(claims -> userRepository.findByUsername(claims.getSubject())
+            .filter(user -> user.getId().equals(jwtUtils.getUserIdFromClaims(claims))))
+        .map(UserDetailsImpl::build);
+    if (userDetails.isEmpty()) {
+      meterRegistry.counter("kudos.auth.refresh", "outcome", "failure").increment();
+      return ResponseEntity
+          .status(HttpStatus.UNAUTHORIZED)
+          .body(new Response("Error: Invalid refresh token!"));
+    }
+    meterRegistry.counter("kudos.auth.refresh", "outcome", "success").increment();
+
+    return ResponseEntity.ok(toJwtResponse(jwtUtils.generateAccessToken(userDetails.get()),
+        refreshToken, userDetails.get()));
   }
 
-  @PostMapping("/signup")
-  public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-    if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+  /**
+   * Revokes the access token the request is made with and, if one is given, the refresh token
+   * issued with it.
+   */
+  @PostMapping("/signout")
+  public ResponseEntity<?> signOut(
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+      @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+    if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+      jwtUtils.parseVerifiedClaims(authorization.substring(BEARER_PREFIX.length()))
+          .ifPresent(tokenRevocations::revoke);
+    }
+    if (refreshTokenRequest != null && refreshTokenRequest.getRefreshToken() != null) {
+      jwtUtils.parseRefreshClaims(refreshTokenRequest.getRefreshToken())
+          .ifPresent(tokenRevocations::revoke);
+    }
+    meterRegistry.counter("kudos.auth.signout").increment();
+
+    return ResponseEntity.ok(new Response("User signed out successfully!"));
+  }
+
+  /**
+   * Revokes any valid access or refresh token, for example one that has leaked.
+   */
+  @PostMapping("/revoke")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<?> revokeToken(@Valid @RequestBody RevokeTokenRequest revokeTokenRequest) {
+    final Optional<Claims> claims = jwtUtils.parseVerifiedClaims(revokeTokenRequest.getToken());
+    if (claims.isEmpty()) {
       return ResponseEntity
           .badRequest()
-          .body(new Response("Error: Username is already taken!"));
+          .body(new Response("Error: Invalid token!"));
     }
-
-    if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+    if (!tokenRevocations.revoke(claims.get())) {
       return ResponseEntity
           .badRequest()
-          .body(new Response("Error: Email is already in use!"));
+          .body(new Response("Error: Token has no id and cannot be revoked!"));
     }
 
+    return ResponseEntity.ok(new Response("Token revoked successfully!"));
+  }
+
+  /**
+   * Registers a user with a single insert. Taken usernames and emails are rejected by the unique
+   * indexes on {@code users}, so concurrent signups for the same name cannot both succeed.
+   */
+  @PostMapping("/signup")
+  public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
     // Create new user's account
     User user = new User(signUpRequest.getUsername(),
         signUpRequest.getEmail(),
@@ -95,34 +183,53 @@ public class AuthController {
     Set<Role> roles = new HashSet<>();
 
     if (strRoles == null) {
-      Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-          .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-      roles.add(userRole);
+      roles.add(roleRegistry.get(ERole.ROLE_USER));
     } else {
       strRoles.forEach(role -> {
         switch (role) {
-          case "admin" -> {
-            Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-            roles.add(adminRole);
-          }
-          case "mod" -> {
-            Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-            roles.add(modRole);
-          }
-          default -> {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-            roles.add(userRole);
-          }
+          case "admin" -> roles.add(roleRegistry.get(ERole.ROLE_ADMIN));
+          case "mod" -> roles.add(roleRegistry.get(ERole.ROLE_MODERATOR));
+          default -> roles.add(roleRegistry.get(ERole.ROLE_USER));
         }
       });
     }
 
     user.setRoles(roles);
-    userRepository.save(user);
+    try {
+      userRepository.insert(user);
+    } catch (DuplicateKeyException ex) {
+      return ResponseEntity
+          .badRequest()
+          .body(new Response(duplicateUserMessage(ex)));
+    }
+    userCache.invalidate(user.getUsername());
+    meterRegistry.counter("kudos.auth.signup").increment();
 
     return ResponseEntity.ok(new Response("User registered successfully!"));
   }
+
+  private static String duplicateUserMessage(final DuplicateKeyException ex) {
+    final String message = String.valueOf(ex.getMessage());
+    if (message.contains(User.USERNAME_INDEX)) {
+      return "Error: Username is already taken!";
+    }
+    if (message.contains(User.EMAIL_INDEX)) {
+      return "Error: Email is already in use!";
+    }
+    throw ex;
+  }
+
+  private static JwtResponse toJwtResponse(final String accessToken, final String refreshToken,
+      final UserDetailsImpl userDetails) {
+    List<String> roles = userDetails.getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority)
+        .collect(Collectors.toList());
+
+    return new JwtResponse(accessToken,
+        refreshToken,
+        userDetails.id(),
+        userDetails.getUsername(),
+        userDetails.getEmail(),
+        roles);
+  }
 }
@@ -6,18 +6,36 @@ import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
 import com.krterziev.kudosboards.exceptions.UserAuthenticationException;
 import com.krterziev.kudosboards.exceptions.UserAuthorisationException;
 import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardOverview;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.BoardVersion;
+import com.krterziev.kudosboards.models.MemberAdditionResult;
+import com.krterziev.kudosboards.payload.request.BoardMembersRequest;
 import com.krterziev.kudosboards.payload.request.CreateBoardRequest;
 import com.krterziev.kudosboards.payload.request.IdRequest;
+import com.krterziev.kudosboards.payload.response.BoardMemberBatchResponse;
+import com.krterziev.kudosboards.payload.response.BoardOverviewResponse;
 import com.krterziev.kudosboards.payload.response.BoardResponse;
 import com.krterziev.kudosboards.payload.response.IdResponse;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
 import com.krterziev.kudosboards.services.BoardService;
+import com.krterziev.kudosboards.services.PublicBoardListing;
 import com.krterziev.kudosboards.transformers.ResponseTransformer;
+import io.micrometer.core.annotation.Timed;
 import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -25,29 +43,64 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Timed("kudos.api.boards")
 @RequestMapping("/api/boards")
 public class BoardController {
 
   final BoardService boardService;
+  final PublicBoardListing publicBoardListing;
+  final int membersBatchMaxSize;
 
   @Autowired
-  public BoardController(final BoardService boardService) {
+  public BoardController(final BoardService boardService,
+      final PublicBoardListing publicBoardListing,
+      @Value("${krterziev.app.boards.membersBatchMaxSize:1000}") final int membersBatchMaxSize) {
     this.boardService = boardService;
+    this.publicBoardListing = publicBoardListing;
+    this.membersBatchMaxSize = membersBatchMaxSize;
   }
 
+  /**
+   * Lists the current user's boards. Anonymous callers get the public boards as the bytes of a
+   * shared snapshot, gzipped if they accept it, and 304 if they already have it.
+   */
   @GetMapping
-  public ResponseEntity<List<BoardResponse>> getBoards() {
-    final List<Board> boards = boardService.getAllBoards();
-    return ResponseEntity.ok(boards.stream().map(ResponseTransformer::toBoardResponse).toList());
+  public ResponseEntity<?> getBoards(@AuthenticationPrincipal final UserDetailsImpl principal,
+      final WebRequest webRequest) {
+    if (principal == null) {
+      return getPublicBoards(webRequest);
+    }
+    final List<BoardSummary> boards = boardService.getAllBoards();
+    return ResponseEntity.ok(
+        boards.stream().map(ResponseTransformer::toBoardSummaryResponse).toList());
   }
 
+  /**
+   * Answers re-reads of an unchanged board with 304 from a lookup of its version alone. The
+   * version is read before the board, so the body is never older than its ETag.
+   */
   @GetMapping("/{id}")
-  public ResponseEntity<BoardResponse> getBoard(@PathVariable final String id) {
+  public ResponseEntity<BoardResponse> getBoard(@PathVariable final String id,
+      final WebRequest webRequest) {
+    final Optional<BoardVersion> version = boardService.getBoardVersion(id);
+    if (version.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+          String.format("Board %s not found", id));
+    }
+    final Instant lastModified = version.get().lastModified();
+    if (webRequest.checkNotModified("\"" + version.get().version() + "\"",
+        lastModified == null ? -1 : lastModified.toEpochMilli())) {
+      return null;
+    }
+
     final Optional<Board> board = boardService.getBoard(id);
     if (board.isEmpty()) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND,
@@ -56,6 +109,17 @@ public class BoardController {
     return ResponseEntity.ok(toBoardResponse(board.get()));
   }
 
+  @GetMapping(value = "/{id}", params = "view=summary")
+  public ResponseEntity<BoardOverviewResponse> getBoardOverview(@PathVariable final String id,
+      @RequestParam(defaultValue = "20") final int limit) {
+    final Optional<BoardOverview> overview = boardService.getBoardOverview(id, limit);
+    if (overview.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+          String.format("Board %s not found", id));
+    }
+    return ResponseEntity.ok(ResponseTransformer.toBoardOverviewResponse(overview.get()));
+  }
+
   @PostMapping()
   public ResponseEntity<IdResponse> createBoard(
       @RequestBody final CreateBoardRequest boardRequest) {
@@ -81,5 +145,79 @@ public class BoardController {
     return ResponseEntity.ok().build();
   }
 
+  /**
+   * Adds up to {@code krterziev.app.boards.membersBatchMaxSize} users to a board with one lookup
+   * of the ids and one update, instead of several round trips per user. Ids of missing users are
+   * reported in the results and do not fail the rest of the batch.
+   */
+  @PostMapping("/{boardId}/users/batch")
+  public ResponseEntity<BoardMemberBatchResponse> addUsersToBoard(
+      @PathVariable final String boardId, @RequestBody final BoardMembersRequest membersRequest) {
+    final List<String> userIds = membersRequest.userIds();
+    if (userIds == null || userIds.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No users in batch");
+    }
+    if (userIds.size() > membersBatchMaxSize) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          String.format("At most %d users can be added at once", membersBatchMaxSize));
+    }
 
+    final List<MemberAdditionResult> results;
+    try {
+      results = boardService.addUsersToBoard(boardId, userIds);
+    } catch (ResourceNotFoundException ex) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
+    } catch (UserAuthenticationException | UserAuthorisationException ex) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, ex.getMessage());
+    }
+    return ResponseEntity.ok(ResponseTransformer.toBoardMemberBatchResponse(results));
+  }
+
+  private ResponseEntity<byte[]> getPublicBoards(final WebRequest webRequest) {
+    final PublicBoardListing.Snapshot listing = publicBoardListing.get();
+    final boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    if (webRequest.checkNotModified(gzip ? listing.gzipEtag() : listing.etag())) {
+      return null;
+    }
+    final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(listing.gzipped());
+    }
+    return response.body(listing.json());
+  }
+
+  /**
+   * Tells whether an {@code Accept-Encoding} header accepts gzip, that is names gzip, or failing
+   * that {@code *}, with a non-zero quality.
+   */
+  static boolean acceptsGzip(final String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    boolean wildcard = false;
+    for (final String element : acceptEncoding.split(",")) {
+      final String[] parts = element.split(";");
+      final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < parts.length; i++) {
+        final String parameter = parts[i].trim();
+        if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+          try {
+            quality = Double.parseDouble(parameter.substring(2).trim());
+          } catch (NumberFormatException ex) {
+            quality = 0;
+          }
+        }
+      }
+      if (coding.equals("gzip") || coding.equals("x-gzip")) {
+        return quality > 0;
+      }
+      if (coding.equals("*")) {
+        wildcard = quality > 0;
+      }
+    }
+    return wildcard;
+  }
 }
@@ -0,0 +1,43 @@
+package com.krterziev.kudosboards.controllers;
+
+import com.krterziev.kudosboards.events.BoardFeed;
+import com.krterziev.kudosboards.services.BoardService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Timed("kudos.api.feed")
+@RequestMapping("/api/boards/{boardId}/events")
+public class BoardFeedController {
+
+  private final BoardFeed boardFeed;
+  private final BoardService boardService;
+
+  @Autowired
+  public BoardFeedController(final BoardFeed boardFeed, final BoardService boardService) {
+    this.boardFeed = boardFeed;
+    this.boardService = boardService;
+  }
+
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter subscribe(@PathVariable final String boardId) {
+    if (!boardService.isBoardReadable(boardId)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+          String.format("Board %s not found", boardId));
+    }
+    return boardFeed.subscribe(boardId);
+  }
+}
@@ -0,0 +1,112 @@
+package com.krterziev.kudosboards.controllers;
+
+import com.krterziev.kudosboards.blobs.BlobInfo;
+import com.krterziev.kudosboards.blobs.BlobResource;
+import com.krterziev.kudosboards.blobs.BlobStore;
+import com.krterziev.kudosboards.exceptions.InvalidImageException;
+import com.krterziev.kudosboards.payload.response.ImageResponse;
+import com.krterziev.kudosboards.services.MessageImages;
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Uploads and serves message images.
+ *
+ * <p>Images are addressed by the hash of their content and never change, so downloads carry
+ * the id as a strong ETag and may be cached for a year. {@code Range} requests are served from
+ * the stream by Spring's resource handling, without reading the whole image into memory.
+ *
+ * <p>Images are served from the application's origin, so browsers are told neither to sniff
+ * their type nor to run anything in them. Blobs stored under a type that is not an accepted
+ * image type, before uploads were checked, are served as attachments.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Timed("kudos.api.images")
+@RequestMapping("/api/images")
+public class ImageController {
+
+  // Spring 5.3 has no CacheControl.immutable(), so the directive is appended to the header.
+  private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+      .cachePublic().getHeaderValue() + ", immutable";
+  private static final String X_CONTENT_TYPE_OPTIONS = "X-Content-Type-Options";
+  private static final String CONTENT_SECURITY_POLICY = "Content-Security-Policy";
+
+  private final BlobStore blobStore;
+  private final MessageImages messageImages;
+
+  @Autowired
+  public ImageController(final BlobStore blobStore, final MessageImages messageImages) {
+    this.blobStore = blobStore;
+    this.messageImages = messageImages;
+  }
+
+  @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<ImageResponse> uploadImage(@RequestParam("file") final MultipartFile file) {
+    final BlobInfo blob;
+    try (InputStream content = file.getInputStream()) {
+      blob = messageImages.store(content, file.getContentType());
+    } catch (InvalidImageException ex) {
+      throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, ex.getMessage());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    final String url = MessageImages.imageUrl(blob.id());
+    return ResponseEntity.created(URI.create(url)).body(new ImageResponse(blob.id(), url));
+  }
+
+  /**
+   * The ETag header is set by {@link WebRequest#checkNotModified(String)} and is not repeated
+   * on the response entity.
+   */
+  @GetMapping("/{imageId}")
+  public ResponseEntity<Resource> getImage(@PathVariable final String imageId,
+      final WebRequest webRequest) {
+    final String etag = "\"" + imageId + "\"";
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+
+    final BlobInfo blob = blobStore.find(imageId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+            String.format("Image %s not found", imageId)));
+    final boolean image = MessageImages.IMAGE_TYPES.contains(blob.contentType());
+    final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+        .lastModified(blob.uploaded())
+        .header(X_CONTENT_TYPE_OPTIONS, "nosniff")
+        .header(CONTENT_SECURITY_POLICY, "sandbox")
+        .contentType(image ? MediaType.parseMediaType(blob.contentType())
+            : MediaType.APPLICATION_OCTET_STREAM);
+    if (!image) {
+      response.header(HttpHeaders.CONTENT_DISPOSITION,
+          ContentDisposition.attachment().filename(imageId).build().toString());
+    }
+    return response.body(new BlobResource(blobStore, blob));
+  }
+}
@@ -1,18 +1,31 @@
 package com.krterziev.kudosboards.controllers;
 
+import com.krterziev.kudosboards.exceptions.InvalidImageException;
 import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
 import com.krterziev.kudosboards.exceptions.UserAuthenticationException;
 import com.krterziev.kudosboards.exceptions.UserAuthorisationException;
 import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCreationResult;
+import com.krterziev.kudosboards.models.MessageCursor;
+import com.krterziev.kudosboards.models.MessagePage;
+import com.krterziev.kudosboards.payload.request.MessageBatchRequest;
 import com.krterziev.kudosboards.payload.request.MessageRequest;
 import com.krterziev.kudosboards.payload.response.IdResponse;
+import com.krterziev.kudosboards.payload.response.MessageBatchResponse;
+import com.krterziev.kudosboards.payload.response.MessagePageResponse;
 import com.krterziev.kudosboards.payload.response.MessageResponse;
 import com.krterziev.kudosboards.services.BoardService;
 import com.krterziev.kudosboards.services.MessageService;
 import com.krterziev.kudosboards.transformers.ResponseTransformer;
+import io.micrometer.core.annotation.Timed;
 import java.net.URI;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -23,25 +36,57 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@Timed("kudos.api.messages")
 @RequestMapping("/api/boards/{boardId}/messages")
 public class MessageController {
 
   private final MessageService messageService;
   private final BoardService boardService;
+  private final int batchMaxSize;
 
   @Autowired
-  public MessageController(MessageService messageService, BoardService boardService) {
+  public MessageController(MessageService messageService, BoardService boardService,
+      @Value("${krterziev.app.messages.batchMaxSize:100}") final int batchMaxSize) {
     this.messageService = messageService;
     this.boardService = boardService;
+    this.batchMaxSize = batchMaxSize;
+  }
+
+  @GetMapping()
+  public ResponseEntity<MessagePageResponse> getMessages(@PathVariable final String boardId,
+      @RequestParam(required = false) final String cursor,
+      @RequestParam(defaultValue = "50") final int limit) {
+    final MessageCursor after;
+    try {
+      after = cursor == null ? null : MessageCursor.decode(cursor);
+    } catch (IllegalArgumentException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+    final Optional<MessagePage> page = boardService.getBoardMessages(boardId, after, limit);
+    if (page.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+          String.format("Board %s not found", boardId));
+    }
+    return ResponseEntity.ok(ResponseTransformer.toMessagePageResponse(page.get()));
   }
 
   @GetMapping("/{messageId}")
-  public ResponseEntity<MessageResponse> getMessage(@PathVariable final String messageId) {
+  public ResponseEntity<MessageResponse> getMessage(@PathVariable final String messageId,
+      final WebRequest webRequest) {
+    final Optional<Instant> lastModified = messageService.getMessageLastModified(messageId);
+    if (lastModified.isPresent() && webRequest.checkNotModified(
+        "\"" + lastModified.get().toEpochMilli() + "\"", lastModified.get().toEpochMilli())) {
+      return null;
+    }
+
     final Message message;
     try {
       message = messageService.getMessage(messageId);
@@ -54,9 +99,12 @@ public class MessageController {
   @PostMapping()
   public ResponseEntity<IdResponse> addMessageToBoard(@PathVariable final String boardId,
       @RequestBody final MessageRequest messageRequest) {
-    final Message message = messageService.createMessage(messageRequest);
+    final Message message;
     try {
+      message = messageService.createMessage(boardId, messageRequest);
       boardService.addMessageToBoard(boardId, message);
+    } catch (InvalidImageException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
     } catch (ResourceNotFoundException ex) {
       throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
     }
@@ -64,11 +112,52 @@ public class MessageController {
         URI.create(String.format("/api/boards/%s/messages/%s", boardId, message.getId()))).build();
   }
 
+  /**
+   * Creates up to {@code krterziev.app.messages.batchMaxSize} messages with one insert and adds
+   * them to the board with one update, instead of two round trips per message. Messages with an
+   * invalid image are reported in the results and do not fail the rest of the batch. The board
+   * is looked up first, so that no image of a batch for a missing board is stored.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<MessageBatchResponse> addMessagesToBoard(
+      @PathVariable final String boardId, @RequestBody final MessageBatchRequest batchRequest) {
+    final List<MessageRequest> messageRequests = batchRequest.messages();
+    if (messageRequests == null || messageRequests.isEmpty()) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No messages in batch");
+    }
+    if (messageRequests.size() > batchMaxSize) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          String.format("At most %d messages can be created at once", batchMaxSize));
+    }
+    if (!boardService.boardExists(boardId)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+          String.format("Board %s not found", boardId));
+    }
+
+    final List<MessageCreationResult> results =
+        messageService.createMessages(boardId, messageRequests);
+    final List<Message> created = results.stream()
+        .filter(MessageCreationResult::isCreated)
+        .map(MessageCreationResult::message)
+        .toList();
+    if (!created.isEmpty()) {
+      try {
+        boardService.addMessagesToBoard(boardId, created);
+      } catch (ResourceNotFoundException ex) {
+        messageService.discardMessages(created);
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
+      }
+    }
+    return ResponseEntity.ok(ResponseTransformer.toMessageBatchResponse(boardId, results));
+  }
+
   @PutMapping("/{messageId}")
   public ResponseEntity<Void> updateMessage(@PathVariable final String messageId,
       @RequestBody final MessageRequest messageRequest) {
     try {
       messageService.updateMessage(messageId, messageRequest);
+    } catch (InvalidImageException ex) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
     } catch (UserAuthorisationException | UserAuthenticationException ex) {
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, ex.getMessage());
     } catch (ResourceNotFoundException ex) {
@@ -81,6 +170,8 @@ public class MessageController {
   public ResponseEntity<Void> deleteMessage(@PathVariable final String messageId,
       @PathVariable final String boardId) {
     try {
+      // Authorised before the board is changed, as that also updates summaries and feeds.
+      messageService.authoriseMessageChange(messageId);
       boardService.deleteMessageFromBoard(boardId, messageId);
       messageService.deleteMessage(messageId);
     } catch (UserAuthorisationException | UserAuthenticationException ex) {
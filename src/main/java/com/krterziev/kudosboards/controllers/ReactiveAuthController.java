@@ -0,0 +1,142 @@
+package com.krterziev.kudosboards.controllers;
+
+import com.krterziev.kudosboards.payload.request.LoginRequest;
+import com.krterziev.kudosboards.payload.request.RefreshTokenRequest;
+import com.krterziev.kudosboards.payload.response.JwtResponse;
+import com.krterziev.kudosboards.payload.response.Response;
+import com.krterziev.kudosboards.security.jwt.JwtUtils;
+import com.krterziev.kudosboards.security.jwt.TokenRevocations;
+import com.krterziev.kudosboards.security.services.ReactiveUserDetailsServiceImpl;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Sign-in, token refresh and sign-out for the {@code reactive} profile. Password checks run on
+ * the authentication manager's bounded elastic scheduler rather than on the event loop. The
+ * blocking {@link AuthController} only runs in servlet mode, so this profile has no sign-up or
+ * token revocation endpoints; accounts are created by a servlet deployment sharing the database.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Timed("kudos.api.auth")
+@RequestMapping("/api/auth")
+public class ReactiveAuthController {
+
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  @Autowired
+  ReactiveAuthenticationManager authenticationManager;
+
+  @Autowired
+  JwtUtils jwtUtils;
+
+  @Autowired
+  ReactiveUserDetailsServiceImpl userDetailsService;
+
+  @Autowired
+  TokenRevocations tokenRevocations;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @PostMapping("/signin")
+  public Mono<ResponseEntity<JwtResponse>> authenticateUser(
+      @Valid @RequestBody LoginRequest loginRequest) {
+    return authenticationManager.authenticate(
+            new UsernamePasswordAuthenticationToken(loginRequest.getUsername(),
+                loginRequest.getPassword()))
+        .doOnError(AuthenticationException.class, ex ->
+            meterRegistry.counter("kudos.auth.signin", "outcome", "failure").increment())
+        .onErrorMap(AuthenticationException.class,
+            ex -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, ex.getMessage()))
+        .map(authentication -> {
+          meterRegistry.counter("kudos.auth.signin", "outcome", "success").increment();
+          final String jwt = jwtUtils.generateJwtToken(authentication);
+
+          final UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+          return ResponseEntity.ok(toJwtResponse(jwt, jwtUtils.generateRefreshToken(userDetails),
+              userDetails));
+        });
+  }
+
+  /**
+   * Exchanges a refresh token for an access token carrying the user's current roles.
+   */
+  @PostMapping("/refresh")
+  public Mono<ResponseEntity<JwtResponse>> refreshToken(
+      @Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+    final String refreshToken = refreshTokenRequest.getRefreshToken();
+    return Mono.justOrEmpty(jwtUtils.parseRefreshClaims(refreshToken))
+        .filterWhen(claims -> Mono.fromCallable(() -> !tokenRevocations.isRevoked(claims.getId()))
+            .subscribeOn(Schedulers.boundedElastic()))
+        .flatMap(claims -> userDetailsService.findByUsername(claims.getSubject())
+            .cast(UserDetailsImpl.class)
+            .filter(userDetails -> userDetails.id().equals(jwtUtils.getUserIdFromClaims(claims))))
+        .map(userDetails -> {
+          meterRegistry.counter("kudos.auth.refresh", "outcome", "success").increment();
+          return ResponseEntity.ok(toJwtResponse(jwtUtils.generateAccessToken(userDetails),
+              refreshToken, userDetails));
+        })
+        .switchIfEmpty(Mono.defer(() -> {
+          meterRegistry.counter("kudos.auth.refresh", "outcome", "failure").increment();
+          return Mono.error(
+              new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+        }));
+  }
+
+  /**
+   * Revokes the access token the request is made with and, if one is given, the refresh token
+   * issued with it.
+   */
+  @PostMapping("/signout")
+  public Mono<Response> signOut(
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+      final String authorization,
+      @RequestBody(required = false) final RefreshTokenRequest refreshTokenRequest) {
+    return Mono.fromRunnable(() -> {
+          if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            jwtUtils.parseVerifiedClaims(authorization.substring(BEARER_PREFIX.length()))
+                .ifPresent(tokenRevocations::revoke);
+          }
+          if (refreshTokenRequest != null && refreshTokenRequest.getRefreshToken() != null) {
+            jwtUtils.parseRefreshClaims(refreshTokenRequest.getRefreshToken())
+                .ifPresent(tokenRevocations::revoke);
+          }
+          meterRegistry.counter("kudos.auth.signout").increment();
+        })
+        .subscribeOn(Schedulers.boundedElastic())
+        .thenReturn(new Response("User signed out successfully!"));
+  }
+
+  private static JwtResponse toJwtResponse(final String accessToken, final String refreshToken,
+      final UserDetailsImpl userDetails) {
+    return new JwtResponse(accessToken,
+        refreshToken,
+        userDetails.id(),
+        userDetails.getUsername(),
+        userDetails.getEmail(),
+        userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+  }
+}
@@ -0,0 +1,86 @@
+package com.krterziev.kudosboards.controllers;
+
+import com.krterziev.kudosboards.payload.request.CreateBoardRequest;
+import com.krterziev.kudosboards.payload.request.IdRequest;
+import com.krterziev.kudosboards.payload.response.BoardOverviewResponse;
+import com.krterziev.kudosboards.payload.response.BoardResponse;
+import com.krterziev.kudosboards.payload.response.BoardSummaryResponse;
+import com.krterziev.kudosboards.payload.response.IdResponse;
+import com.krterziev.kudosboards.services.ReactiveBoardService;
+import com.krterziev.kudosboards.transformers.ResponseTransformer;
+import io.micrometer.core.annotation.Timed;
+import java.net.URI;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Timed("kudos.api.boards")
+@RequestMapping("/api/boards")
+public class ReactiveBoardController {
+
+  final ReactiveBoardService boardService;
+
+  @Autowired
+  public ReactiveBoardController(final ReactiveBoardService boardService) {
+    this.boardService = boardService;
+  }
+
+  @GetMapping
+  public Mono<ResponseEntity<List<BoardSummaryResponse>>> getBoards() {
+    return boardService.getAllBoards()
+        .map(ResponseTransformer::toBoardSummaryResponse)
+        .collectList()
+        .map(ResponseEntity::ok);
+  }
+
+  @GetMapping("/{id}")
+  public Mono<ResponseEntity<BoardResponse>> getBoard(@PathVariable final String id) {
+    return boardService.getBoard(id)
+        .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+            String.format("Board %s not found", id))))
+        .map(board -> ResponseEntity.ok(ResponseTransformer.toBoardResponse(board)));
+  }
+
+  @GetMapping(value = "/{id}", params = "view=summary")
+  public Mono<ResponseEntity<BoardOverviewResponse>> getBoardOverview(
+      @PathVariable final String id, @RequestParam(defaultValue = "20") final int limit) {
+    return boardService.getBoardOverview(id, limit)
+        .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+            String.format("Board %s not found", id))))
+        .map(overview -> ResponseEntity.ok(ResponseTransformer.toBoardOverviewResponse(overview)));
+  }
+
+  @PostMapping()
+  public Mono<ResponseEntity<IdResponse>> createBoard(
+      @RequestBody final CreateBoardRequest boardRequest) {
+    return boardService.createBoard(boardRequest)
+        .onErrorMap(ResponseStatusErrors::toResponseStatus)
+        .map(board -> ResponseEntity.created(URI.create("/api/boards/" + board.getId()))
+            .<IdResponse>build());
+  }
+
+  @PutMapping("/{boardId}/users")
+  public Mono<ResponseEntity<Void>> addUserToBoard(@PathVariable final String boardId,
+      @RequestBody final IdRequest userId) {
+    return boardService.addUserToBoard(userId.id(), boardId)
+        .onErrorMap(ResponseStatusErrors::toResponseStatus)
+        .then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+  }
+}
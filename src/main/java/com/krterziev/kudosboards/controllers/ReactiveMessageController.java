@@ -0,0 +1,99 @@
+package com.krterziev.kudosboards.controllers;
+
+import com.krterziev.kudosboards.models.MessageCursor;
+import com.krterziev.kudosboards.payload.request.MessageRequest;
+import com.krterziev.kudosboards.payload.response.IdResponse;
+import com.krterziev.kudosboards.payload.response.MessagePageResponse;
+import com.krterziev.kudosboards.payload.response.MessageResponse;
+import com.krterziev.kudosboards.services.ReactiveBoardService;
+import com.krterziev.kudosboards.services.ReactiveMessageService;
+import com.krterziev.kudosboards.transformers.ResponseTransformer;
+import io.micrometer.core.annotation.Timed;
+import java.net.URI;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Timed("kudos.api.messages")
+@RequestMapping("/api/boards/{boardId}/messages")
+public class ReactiveMessageController {
+
+  private final ReactiveMessageService messageService;
+  private final ReactiveBoardService boardService;
+
+  @Autowired
+  public ReactiveMessageController(final ReactiveMessageService messageService,
+      final ReactiveBoardService boardService) {
+    this.messageService = messageService;
+    this.boardService = boardService;
+  }
+
+  @GetMapping()
+  public Mono<ResponseEntity<MessagePageResponse>> getMessages(@PathVariable final String boardId,
+      @RequestParam(required = false) final String cursor,
+      @RequestParam(defaultValue = "50") final int limit) {
+    final MessageCursor after;
+    try {
+      after = cursor == null ? null : MessageCursor.decode(cursor);
+    } catch (IllegalArgumentException ex) {
+      return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
+    return boardService.getBoardMessages(boardId, after, limit)
+        .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+            String.format("Board %s not found", boardId))))
+        .map(page -> ResponseEntity.ok(ResponseTransformer.toMessagePageResponse(page)));
+  }
+
+  @GetMapping("/{messageId}")
+  public Mono<ResponseEntity<MessageResponse>> getMessage(@PathVariable final String messageId) {
+    return messageService.getMessage(messageId)
+        .onErrorMap(ResponseStatusErrors::toResponseStatus)
+        .map(message -> ResponseEntity.ok(ResponseTransformer.toMessageResponse(message)));
+  }
+
+  @PostMapping()
+  public Mono<ResponseEntity<IdResponse>> addMessageToBoard(@PathVariable final String boardId,
+      @RequestBody final MessageRequest messageRequest) {
+    return messageService.createMessage(boardId, messageRequest)
+        .flatMap(message -> boardService.addMessageToBoard(boardId, message))
+        .onErrorMap(ResponseStatusErrors::toResponseStatus)
+        .map(message -> ResponseEntity.created(URI.create(
+            String.format("/api/boards/%s/messages/%s", boardId, message.getId())))
+            .<IdResponse>build());
+  }
+
+  @PutMapping("/{messageId}")
+  public Mono<ResponseEntity<Void>> updateMessage(@PathVariable final String messageId,
+      @RequestBody final MessageRequest messageRequest) {
+    return messageService.updateMessage(messageId, messageRequest)
+        .onErrorMap(ResponseStatusErrors::toResponseStatus)
+        .then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+  }
+
+  @DeleteMapping("/{messageId}")
+  public Mono<ResponseEntity<Void>> deleteMessage(@PathVariable final String messageId,
+      @PathVariable final String boardId) {
+    return messageService.authoriseMessageChange(messageId)
+        .then(boardService.deleteMessageFromBoard(boardId, messageId))
+        .then(messageService.deleteMessage(messageId))
+        .onErrorMap(ResponseStatusErrors::toResponseStatus)
+        .then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+  }
+}
@@ -0,0 +1,31 @@
+package com.krterziev.kudosboards.controllers;
+
+import com.krterziev.kudosboards.exceptions.InvalidImageException;
+import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
+import com.krterziev.kudosboards.exceptions.UserAuthenticationException;
+import com.krterziev.kudosboards.exceptions.UserAuthorisationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Maps the service exceptions carried by reactive error signals to the statuses the blocking
+ * controllers return for them.
+ */
+final class ResponseStatusErrors {
+
+  private ResponseStatusErrors() {
+  }
+
+  static Throwable toResponseStatus(final Throwable ex) {
+    if (ex instanceof InvalidImageException) {
+      return new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+    if (ex instanceof ResourceNotFoundException) {
+      return new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+    if (ex instanceof UserAuthenticationException || ex instanceof UserAuthorisationException) {
+      return new ResponseStatusException(HttpStatus.UNAUTHORIZED, ex.getMessage());
+    }
+    return ex;
+  }
+}
@@ -0,0 +1,32 @@
+package com.krterziev.kudosboards.events;
+
+import com.krterziev.kudosboards.models.Message;
+
+/**
+ * A change to a board or its messages, published as an application event after the write has
+ * been made. {@code message} is only set for added and updated messages.
+ */
+public record BoardEvent(EBoardEventType type, String boardId, String messageId,
+                         Message message) {
+
+  public static BoardEvent messageAdded(final String boardId, final Message message) {
+    return new BoardEvent(EBoardEventType.MESSAGE_ADDED, boardId, message.getId(), message);
+  }
+
+  public static BoardEvent messageUpdated(final Message message) {
+    return new BoardEvent(EBoardEventType.MESSAGE_UPDATED, message.getBoardId(), message.getId(),
+        message);
+  }
+
+  public static BoardEvent messageDeleted(final String boardId, final String messageId) {
+    return new BoardEvent(EBoardEventType.MESSAGE_DELETED, boardId, messageId, null);
+  }
+
+  public static BoardEvent boardCreated(final String boardId) {
+    return new BoardEvent(EBoardEventType.BOARD_CREATED, boardId, null, null);
+  }
+
+  public static BoardEvent boardUpdated(final String boardId) {
+    return new BoardEvent(EBoardEventType.BOARD_UPDATED, boardId, null, null);
+  }
+}
@@ -0,0 +1,12 @@
+package com.krterziev.kudosboards.events;
+
+/**
+ * Delivers {@link BoardEvent}s to the {@code @EventListener}s of every node that should see them.
+ */
+public interface BoardEventBus {
+
+  /**
+   * Called by the services after a write has been made.
+   */
+  void publish(BoardEvent event);
+}
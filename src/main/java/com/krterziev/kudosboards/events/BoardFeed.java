@@ -0,0 +1,251 @@
+package com.krterziev.kudosboards.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krterziev.kudosboards.transformers.ResponseTransformer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes {@link BoardEvent}s to the Server-Sent Events subscribers of each board.
+ *
+ * <p>Each event is serialised once and then queued for every subscriber of its board. A pool
+ * of sender threads drains the queues, so publishing never waits on a client's socket. Queues
+ * are bounded by {@code krterziev.app.feed.bufferSize}. A subscriber whose queue is full has
+ * fallen too far behind and is disconnected, after which it is expected to reload the board and
+ * subscribe again. A comment is sent every {@code krterziev.app.feed.heartbeatSeconds} so that
+ * dead connections are noticed and proxies keep idle streams open.
+ *
+ * <p>A send to a client that stopped reading blocks its sender thread until the container's
+ * write times out. The pool keeps {@code senderThreads} threads and grows up to
+ * {@code maxSenderThreads}, so such sends do not hold up the subscribers of other boards. A
+ * subscriber whose send has not returned within {@code sendTimeoutMillis} is disconnected
+ * straight away: nothing more is queued for it, and its emitter is completed once the stuck
+ * send returns. Sends are not run on virtual threads, because {@link SseEmitter} sends under a
+ * monitor and would pin their carrier for as long as they are stuck.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class BoardFeed implements MeterBinder, DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(BoardFeed.class);
+
+  private final ObjectMapper objectMapper;
+  private final int bufferSize;
+  private final long timeoutMillis;
+  private final long sendTimeoutNanos;
+  private final ThreadPoolExecutor senders;
+  private final ScheduledExecutorService heartbeats;
+  private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final LongAdder evictions = new LongAdder();
+
+  @Autowired
+  public BoardFeed(final ObjectMapper objectMapper,
+      @Value("${krterziev.app.feed.bufferSize:256}") final int bufferSize,
+      @Value("${krterziev.app.feed.senderThreads:4}") final int senderThreads,
+      @Value("${krterziev.app.feed.maxSenderThreads:256}") final int maxSenderThreads,
+      @Value("${krterziev.app.feed.heartbeatSeconds:15}") final long heartbeatSeconds,
+      @Value("${krterziev.app.feed.timeoutMinutes:30}") final long timeoutMinutes,
+      @Value("${krterziev.app.feed.sendTimeoutMillis:5000}") final long sendTimeoutMillis) {
+    this.objectMapper = objectMapper;
+    this.bufferSize = bufferSize;
+    this.timeoutMillis = Duration.ofMinutes(timeoutMinutes).toMillis();
+    this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    this.senders = new ThreadPoolExecutor(senderThreads, Math.max(senderThreads, maxSenderThreads),
+        1, TimeUnit.MINUTES, new SynchronousQueue<>(),
+        new CustomizableThreadFactory("board-feed-"));
+    this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+        new CustomizableThreadFactory("board-feed-heartbeat-"));
+    this.heartbeats.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds,
+        TimeUnit.SECONDS);
+    final long stallCheckMillis = Math.max(10, sendTimeoutMillis / 2);
+    this.heartbeats.scheduleAtFixedRate(this::evictStalled, stallCheckMillis, stallCheckMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  public SseEmitter subscribe(final String boardId) {
+    return subscribe(boardId, new SseEmitter(timeoutMillis));
+  }
+
+  SseEmitter subscribe(final String boardId, final SseEmitter emitter) {
+    final Subscriber subscriber = new Subscriber(boardId, emitter);
+    emitter.onCompletion(() -> remove(subscriber));
+    emitter.onTimeout(() -> remove(subscriber));
+    emitter.onError(ex -> remove(subscriber));
+    subscribers.computeIfAbsent(boardId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    return emitter;
+  }
+
+  @EventListener
+  public void onBoardEvent(final BoardEvent event) {
+    final Set<Subscriber> boardSubscribers = subscribers.get(event.boardId());
+    if (boardSubscribers == null || boardSubscribers.isEmpty()) {
+      return;
+    }
+
+    final FeedItem item;
+    try {
+      item = new FeedItem(Long.toString(sequence.incrementAndGet()), event.type().name(),
+          objectMapper.writeValueAsString(ResponseTransformer.toBoardEventResponse(event)));
+    } catch (JsonProcessingException ex) {
+      logger.error("Cannot serialise board event {}", event, ex);
+      return;
+    }
+    boardSubscribers.forEach(subscriber -> subscriber.offer(item));
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("kudos.feed.subscribers", subscribers,
+            all -> all.values().stream().mapToInt(Set::size).sum())
+        .description("Open board feed connections")
+        .register(registry);
+    FunctionCounter.builder("kudos.feed.evictions", evictions, LongAdder::sum)
+        .description("Board feed subscribers disconnected for falling behind or stalling")
+        .register(registry);
+  }
+
+  @Override
+  public void destroy() {
+    heartbeats.shutdownNow();
+    senders.shutdownNow();
+    subscribers.values().forEach(boardSubscribers ->
+        boardSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    subscribers.clear();
+  }
+
+  private void sendHeartbeats() {
+    subscribers.values().forEach(boardSubscribers ->
+        boardSubscribers.forEach(subscriber -> subscriber.offer(FeedItem.HEARTBEAT)));
+  }
+
+  /**
+   * Disconnects subscribers whose current send has not returned within the send timeout. Their
+   * sender thread stays blocked until the write fails, and then completes the emitter.
+   */
+  private void evictStalled() {
+    final long now = System.nanoTime();
+    subscribers.values().forEach(boardSubscribers -> boardSubscribers.forEach(subscriber -> {
+      final long sendStarted = subscriber.sendStarted;
+      if (sendStarted != 0 && now - sendStarted > sendTimeoutNanos) {
+        evictions.increment();
+        remove(subscriber);
+      }
+    }));
+  }
+
+  private void remove(final Subscriber subscriber) {
+    subscriber.closed = true;
+    subscribers.computeIfPresent(subscriber.boardId, (boardId, boardSubscribers) -> {
+      boardSubscribers.remove(subscriber);
+      return boardSubscribers.isEmpty() ? null : boardSubscribers;
+    });
+  }
+
+  private record FeedItem(String id, String name, String data) {
+
+    static final FeedItem HEARTBEAT = new FeedItem(null, null, null);
+
+    SseEmitter.SseEventBuilder toEvent() {
+      if (this == HEARTBEAT) {
+        return SseEmitter.event().comment("heartbeat");
+      }
+      return SseEmitter.event().id(id).name(name).data(data, MediaType.APPLICATION_JSON);
+    }
+  }
+
+  private final class Subscriber {
+
+    private final String boardId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<FeedItem> queue = new ArrayBlockingQueue<>(bufferSize);
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+    private volatile long sendStarted;
+
+    private Subscriber(final String boardId, final SseEmitter emitter) {
+      this.boardId = boardId;
+      this.emitter = emitter;
+    }
+
+    private void offer(final FeedItem item) {
+      if (closed) {
+        return;
+      }
+      if (!queue.offer(item)) {
+        evictions.increment();
+        remove(this);
+      }
+      scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+      if (draining.compareAndSet(false, true)) {
+        try {
+          senders.execute(this::drain);
+        } catch (RejectedExecutionException ex) {
+          // Every sender is busy; the items stay queued until the next offer or heartbeat.
+          draining.set(false);
+        }
+      }
+    }
+
+    /**
+     * Sends queued items until the queue is empty. Closing is also done here rather than by the
+     * publisher, because completing the emitter waits for any send still in progress.
+     */
+    private void drain() {
+      try {
+        FeedItem item;
+        while (!closed && (item = queue.poll()) != null) {
+          sendStarted = System.nanoTime();
+          emitter.send(item.toEvent());
+          sendStarted = 0;
+        }
+      } catch (IOException | IllegalStateException ex) {
+        remove(this);
+      } finally {
+        sendStarted = 0;
+        if (closed) {
+          queue.clear();
+          emitter.complete();
+        }
+        draining.set(false);
+      }
+      if (!closed && !queue.isEmpty()) {
+        scheduleDrain();
+      }
+    }
+  }
+}
@@ -0,0 +1,327 @@
+package com.krterziev.kudosboards.events;
+
+import com.krterziev.kudosboards.models.Message;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Derives {@link BoardEvent}s from a Mongo change stream on the {@code boards} and
+ * {@code messages} collections, so that every node sees the writes made by every other node.
+ *
+ * <p>Services no longer publish events themselves when this bus is enabled: their writes come
+ * back to every node, this one included, through the stream. Each node checkpoints its resume
+ * token in {@value #OFFSETS_COLLECTION} under {@code krterziev.app.events.nodeId}, which
+ * defaults to the host name, and resumes from it after a restart. Delivery is therefore at
+ * least once: changes after the last checkpoint are published again after a crash. A node
+ * without a checkpoint, or whose checkpoint has fallen off the oplog, starts from the present.
+ *
+ * <p>Added and deleted messages are published from the board update that follows the write,
+ * which records their ids in {@value #APPENDED_MESSAGE_IDS} or {@value #REMOVED_MESSAGE_IDS},
+ * rather than from the {@code messages} collection: a message whose board is gone is saved but
+ * never appended, and a deleted message no longer says which board it was on. Change streams
+ * need a replica set; a single-node replica set is enough.
+ */
+@Component
+@ConditionalOnProperty(name = "krterziev.app.events.changeStreams.enabled", havingValue = "true")
+public class ChangeStreamBoardEventBus implements BoardEventBus, DisposableBean {
+
+  static final String OFFSETS_COLLECTION = "change_stream_offsets";
+
+  private static final Logger logger = LoggerFactory.getLogger(ChangeStreamBoardEventBus.class);
+  private static final String BOARDS_COLLECTION = "boards";
+  private static final String MESSAGES_COLLECTION = "messages";
+  private static final String APPENDED_MESSAGE_IDS = "appendedMessageIds";
+  private static final String REMOVED_MESSAGE_IDS = "removedMessageIds";
+  private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+  private static final long RETRY_DELAY_MILLIS = 1000;
+  private static final Set<String> MESSAGE_CHANGE_FIELDS =
+      Set.of("version", "lastModified", APPENDED_MESSAGE_IDS, REMOVED_MESSAGE_IDS);
+
+  private final MongoTemplate mongoTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final String nodeId;
+  private final long checkpointMillis;
+  private volatile boolean running = true;
+  private volatile MongoChangeStreamCursor<?> cursor;
+
+  @Autowired
+  public ChangeStreamBoardEventBus(final MongoTemplate mongoTemplate,
+      final ApplicationEventPublisher eventPublisher,
+      @Value("${krterziev.app.events.nodeId:}") final String nodeId,
+      @Value("${krterziev.app.events.checkpointMillis:1000}") final long checkpointMillis) {
+    this.mongoTemplate = mongoTemplate;
+    this.eventPublisher = eventPublisher;
+    this.nodeId = StringUtils.hasText(nodeId) ? nodeId : hostName();
+    this.checkpointMillis = checkpointMillis;
+  }
+
+  @Override
+  public void publish(final BoardEvent event) {
+    // Published to every node, this one included, once the write shows up in the change stream.
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    final Thread worker = new Thread(this::run, "board-change-stream");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  @Override
+  public void destroy() {
+    running = false;
+    final MongoChangeStreamCursor<?> current = cursor;
+    if (current != null) {
+      current.close();
+    }
+  }
+
+  void run() {
+    BsonDocument resumeToken = loadResumeToken();
+    logger.info("Following board changes as node {}", nodeId);
+    while (running) {
+      try {
+        resumeToken = follow(resumeToken);
+      } catch (MongoCommandException ex) {
+        if (ex.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+          logger.warn("Resume token of node {} is no longer in the oplog, starting from now",
+              nodeId);
+          resumeToken = null;
+        } else {
+          retryLater(ex);
+        }
+      } catch (MongoException | IllegalStateException ex) {
+        retryLater(ex);
+      }
+    }
+  }
+
+  private BsonDocument follow(final BsonDocument resumeToken) {
+    final ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+        .watch(List.of(Aggregates.match(
+            Filters.in("ns.coll", BOARDS_COLLECTION, MESSAGES_COLLECTION))))
+        .fullDocument(FullDocument.UPDATE_LOOKUP)
+        .maxAwaitTime(checkpointMillis, TimeUnit.MILLISECONDS);
+    if (resumeToken != null) {
+      stream.resumeAfter(resumeToken);
+    }
+
+    try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> changes = stream.cursor()) {
+      cursor = changes;
+      BsonDocument checkpoint = changes.getResumeToken();
+      saveResumeToken(checkpoint);
+      long lastCheckpoint = System.currentTimeMillis();
+      while (running) {
+        final ChangeStreamDocument<Document> change = changes.tryNext();
+        if (change != null) {
+          publishChange(change);
+        }
+        final BsonDocument latest = changes.getResumeToken();
+        final long now = System.currentTimeMillis();
+        if (latest != null && !latest.equals(checkpoint)
+            && now - lastCheckpoint >= checkpointMillis) {
+          saveResumeToken(latest);
+          checkpoint = latest;
+          lastCheckpoint = now;
+        }
+      }
+      return changes.getResumeToken();
+    } finally {
+      cursor = null;
+    }
+  }
+
+  private void publishChange(final ChangeStreamDocument<Document> change) {
+    final MongoNamespace namespace = change.getNamespace();
+    if (namespace == null) {
+      return;
+    }
+
+    final BoardEvent event = switch (namespace.getCollectionName()) {
+      case MESSAGES_COLLECTION -> switch (change.getOperationType()) {
+        case UPDATE, REPLACE ->
+            messageEvent(EBoardEventType.MESSAGE_UPDATED, change.getFullDocument());
+        default -> null;
+      };
+      case BOARDS_COLLECTION -> switch (change.getOperationType()) {
+        case INSERT -> BoardEvent.boardCreated(documentId(change.getDocumentKey()));
+        case UPDATE, REPLACE -> {
+          publishAppendedMessages(change);
+          publishRemovedMessages(change);
+          yield changesMoreThanMessages(change.getUpdateDescription())
+              ? BoardEvent.boardUpdated(documentId(change.getDocumentKey())) : null;
+        }
+        default -> null;
+      };
+      default -> null;
+    };
+    if (event != null) {
+      eventPublisher.publishEvent(event);
+    }
+  }
+
+  private BoardEvent messageEvent(final EBoardEventType type, final Document document) {
+    if (document == null || document.getString("boardId") == null) {
+      return null;
+    }
+    final Message message = toMessage(document);
+    return new BoardEvent(type, message.getBoardId(), message.getId(), message);
+  }
+
+  /**
+   * Publishes the messages a board update appended, in the order they were appended, loading
+   * them with one query. Messages deleted since are skipped.
+   */
+  private void publishAppendedMessages(final ChangeStreamDocument<Document> change) {
+    final List<ObjectId> ids = recordedMessageIds(change, APPENDED_MESSAGE_IDS);
+    if (ids.isEmpty()) {
+      return;
+    }
+    final Map<ObjectId, Document> messages = new HashMap<>();
+    mongoTemplate.getCollection(MESSAGES_COLLECTION).find(Filters.in("_id", ids))
+        .forEach(message -> messages.put(message.getObjectId("_id"), message));
+
+    final String boardId = documentId(change.getDocumentKey());
+    for (final ObjectId id : ids) {
+      final Document message = messages.get(id);
+      if (message != null) {
+        eventPublisher.publishEvent(BoardEvent.messageAdded(boardId, toMessage(message)));
+      }
+    }
+  }
+
+  private void publishRemovedMessages(final ChangeStreamDocument<Document> change) {
+    final String boardId = documentId(change.getDocumentKey());
+    for (final ObjectId id : recordedMessageIds(change, REMOVED_MESSAGE_IDS)) {
+      eventPublisher.publishEvent(BoardEvent.messageDeleted(boardId, id.toHexString()));
+    }
+  }
+
+  /**
+   * Reads the message ids a board update set in one of the recording fields, if it set it.
+   */
+  private static List<ObjectId> recordedMessageIds(final ChangeStreamDocument<Document> change,
+      final String field) {
+    final UpdateDescription update = change.getUpdateDescription();
+    final BsonValue recorded = update == null || update.getUpdatedFields() == null ? null
+        : update.getUpdatedFields().get(field);
+    if (recorded == null || !recorded.isArray()) {
+      return List.of();
+    }
+    return recorded.asArray().stream()
+        .filter(id -> id.isString() && ObjectId.isValid(id.asString().getValue()))
+        .map(id -> new ObjectId(id.asString().getValue()))
+        .toList();
+  }
+
+  private Message toMessage(final Document document) {
+    final Document withoutAuthor = new Document(document);
+    withoutAuthor.remove("createdBy");
+    return mongoTemplate.getConverter().read(Message.class, withoutAuthor);
+  }
+
+  /**
+   * Appended and removed messages are reported on their own, so board updates that only touch
+   * the legacy {@code messages} array, the recorded message ids, or the version bumped along
+   * with every message change, are not reported as board updates.
+   */
+  private static boolean changesMoreThanMessages(final UpdateDescription update) {
+    if (update == null) {
+      return true;
+    }
+    final List<String> fields = new ArrayList<>();
+    if (update.getUpdatedFields() != null) {
+      fields.addAll(update.getUpdatedFields().keySet());
+    }
+    if (update.getRemovedFields() != null) {
+      fields.addAll(update.getRemovedFields());
+    }
+    return fields.stream().anyMatch(field -> !field.equals("messages")
+        && !field.startsWith("messages.") && !MESSAGE_CHANGE_FIELDS.contains(field));
+  }
+
+  private static String documentId(final BsonDocument documentKey) {
+    final BsonValue id = documentKey == null ? null : documentKey.get("_id");
+    if (id == null) {
+      return null;
+    }
+    return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+  }
+
+  private BsonDocument loadResumeToken() {
+    final BsonDocument offset = offsets().withDocumentClass(BsonDocument.class)
+        .find(Filters.eq("_id", nodeId)).first();
+    return offset == null ? null : offset.getDocument("resumeToken", null);
+  }
+
+  private void saveResumeToken(final BsonDocument resumeToken) {
+    if (resumeToken == null) {
+      return;
+    }
+    offsets().replaceOne(Filters.eq("_id", nodeId),
+        new Document("_id", nodeId).append("resumeToken", resumeToken)
+            .append("updatedAt", new Date()),
+        new ReplaceOptions().upsert(true));
+  }
+
+  private MongoCollection<Document> offsets() {
+    return mongoTemplate.getCollection(OFFSETS_COLLECTION);
+  }
+
+  private void retryLater(final RuntimeException ex) {
+    if (!running) {
+      return;
+    }
+    logger.warn("Board change stream failed, retrying: {}", ex.getMessage());
+    try {
+      Thread.sleep(RETRY_DELAY_MILLIS);
+    } catch (InterruptedException interrupted) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+
+  private static String hostName() {
+    try {
+      return InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException ex) {
+      return UUID.randomUUID().toString();
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.krterziev.kudosboards.events;
+
+public enum EBoardEventType {
+  MESSAGE_ADDED,
+  MESSAGE_UPDATED,
+  MESSAGE_DELETED,
+  BOARD_CREATED,
+  BOARD_UPDATED
+}
@@ -0,0 +1,27 @@
+package com.krterziev.kudosboards.events;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes events to the listeners of this node only, which is enough for a single node.
+ */
+@Component
+@ConditionalOnProperty(name = "krterziev.app.events.changeStreams.enabled", havingValue = "false",
+    matchIfMissing = true)
+public class LocalBoardEventBus implements BoardEventBus {
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Autowired
+  public LocalBoardEventBus(final ApplicationEventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public void publish(final BoardEvent event) {
+    eventPublisher.publishEvent(event);
+  }
+}
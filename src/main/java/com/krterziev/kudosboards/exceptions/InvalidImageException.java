@@ -0,0 +1,11 @@
+package com.krterziev.kudosboards.exceptions;
+
+public class InvalidImageException extends Exception {
+
+  private static final long serialVersionUID = 1L;
+
+  public InvalidImageException(final String message) {
+    super(message);
+  }
+
+}
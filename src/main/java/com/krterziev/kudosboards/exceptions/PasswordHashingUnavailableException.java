@@ -0,0 +1,19 @@
+package com.krterziev.kudosboards.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a password cannot be hashed because the hashing threads are saturated. It is
+ * unchecked because it escapes through {@code PasswordEncoder}, and answered with 503 so that
+ * clients back off and retry.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many sign-ins, try again")
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public PasswordHashingUnavailableException(final Exception ex) {
+    super("Password hashing is saturated", ex);
+  }
+}
@@ -0,0 +1,22 @@
+package com.krterziev.kudosboards.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public TimedAspect timedAspect(final MeterRegistry registry) {
+    return new TimedAspect(registry);
+  }
+
+  @Bean
+  public MongoClientSettingsBuilderCustomizer mongoDocumentCountCustomizer(
+      final MeterRegistry registry) {
+    return settings -> settings.addCommandListener(new MongoDocumentCountListener(registry));
+  }
+}
@@ -0,0 +1,75 @@
+package com.krterziev.kudosboards.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+/**
+ * Records how many documents each Mongo command returned or affected, tagged by collection and
+ * command, as the {@code mongodb.driver.documents} distribution summary. Command latency is
+ * recorded by Spring Boot's {@code mongodb.driver.commands} timer with the same tags.
+ */
+public class MongoDocumentCountListener implements CommandListener {
+
+  private static final List<String> CURSOR_BATCHES = List.of("firstBatch", "nextBatch");
+
+  private final MeterRegistry registry;
+  private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+  public MongoDocumentCountListener(final MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void commandStarted(final CommandStartedEvent event) {
+    final BsonValue collection = event.getCommand().get(event.getCommandName());
+    if (collection != null && collection.isString()) {
+      collections.put(event.getRequestId(), collection.asString().getValue());
+    }
+  }
+
+  @Override
+  public void commandSucceeded(final CommandSucceededEvent event) {
+    final String collection = collections.remove(event.getRequestId());
+    if (collection == null) {
+      return;
+    }
+    DistributionSummary.builder("mongodb.driver.documents")
+        .description("Documents returned or affected by a Mongo command")
+        .baseUnit("documents")
+        .tag("collection", collection)
+        .tag("command", event.getCommandName())
+        .register(registry)
+        .record(documentCount(event.getResponse()));
+  }
+
+  @Override
+  public void commandFailed(final CommandFailedEvent event) {
+    collections.remove(event.getRequestId());
+  }
+
+  private static long documentCount(final BsonDocument response) {
+    final BsonDocument cursor = response.getDocument("cursor", null);
+    if (cursor != null) {
+      for (final String batch : CURSOR_BATCHES) {
+        if (cursor.containsKey(batch)) {
+          return cursor.getArray(batch).size();
+        }
+      }
+    }
+    final BsonValue n = response.get("n");
+    if (n != null && n.isNumber()) {
+      return n.asNumber().longValue();
+    }
+    final BsonValue value = response.get("value");
+    return value != null && value.isDocument() ? 1 : 0;
+  }
+}
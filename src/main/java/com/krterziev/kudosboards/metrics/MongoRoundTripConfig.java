@@ -0,0 +1,34 @@
+package com.krterziev.kudosboards.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class MongoRoundTripConfig {
+
+  @Bean
+  public MongoRoundTripCounter mongoRoundTripCounter() {
+    return new MongoRoundTripCounter();
+  }
+
+  @Bean
+  public MongoClientSettingsBuilderCustomizer mongoRoundTripCustomizer(
+      final MongoRoundTripCounter counter) {
+    return settings -> settings.addCommandListener(counter);
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = Type.SERVLET)
+  public FilterRegistrationBean<MongoRoundTripFilter> mongoRoundTripFilter(
+      final MongoRoundTripCounter counter) {
+    final FilterRegistrationBean<MongoRoundTripFilter> registration =
+        new FilterRegistrationBean<>(new MongoRoundTripFilter(counter));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
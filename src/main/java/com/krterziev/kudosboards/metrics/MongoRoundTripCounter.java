@@ -0,0 +1,33 @@
+package com.krterziev.kudosboards.metrics;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+/**
+ * Counts the commands sent to Mongo by the current thread.
+ *
+ * <p>The synchronous driver notifies command listeners on the thread that issued the command, so
+ * with one thread per HTTP request the count between {@link #reset()} and {@link #get()} is the
+ * number of Mongo round trips made while serving that request.
+ */
+public class MongoRoundTripCounter implements CommandListener {
+
+  private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+  @Override
+  public void commandStarted(final CommandStartedEvent event) {
+    COUNT.get()[0]++;
+  }
+
+  public void reset() {
+    COUNT.get()[0] = 0;
+  }
+
+  public int get() {
+    return COUNT.get()[0];
+  }
+
+  public void clear() {
+    COUNT.remove();
+  }
+}
@@ -0,0 +1,42 @@
+package com.krterziev.kudosboards.metrics;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Records how many Mongo round trips each HTTP request made in the
+ * {@value #ROUND_TRIPS_ATTRIBUTE} request attribute.
+ */
+public class MongoRoundTripFilter extends OncePerRequestFilter {
+
+  public static final String ROUND_TRIPS_ATTRIBUTE = "mongoRoundTrips";
+
+  private static final Logger logger = LoggerFactory.getLogger(MongoRoundTripFilter.class);
+
+  private final MongoRoundTripCounter counter;
+
+  public MongoRoundTripFilter(final MongoRoundTripCounter counter) {
+    this.counter = counter;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    counter.reset();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      final int roundTrips = counter.get();
+      request.setAttribute(ROUND_TRIPS_ATTRIBUTE, roundTrips);
+      logger.debug("{} {} made {} Mongo round trips", request.getMethod(),
+          request.getRequestURI(), roundTrips);
+      counter.clear();
+    }
+  }
+}
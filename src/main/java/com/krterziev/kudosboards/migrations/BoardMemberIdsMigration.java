@@ -0,0 +1,45 @@
+package com.krterziev.kudosboards.migrations;
+
+import com.krterziev.kudosboards.services.BoardMembers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the member ids of boards created before {@code boards.memberIds} existed, so that
+ * their membership is checked on the member ids index rather than on their references.
+ *
+ * <p>The job runs on its own thread once the application is ready. Boards that already have
+ * member ids are skipped, so it is safe to re-run or to run on several nodes at once.
+ */
+@Component
+@ConditionalOnProperty(name = "krterziev.app.migrations.boardMemberIds.enabled",
+    havingValue = "true")
+public class BoardMemberIdsMigration {
+
+  private static final Logger logger = LoggerFactory.getLogger(BoardMemberIdsMigration.class);
+
+  private final BoardMembers boardMembers;
+
+  @Autowired
+  public BoardMemberIdsMigration(final BoardMembers boardMembers) {
+    this.boardMembers = boardMembers;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    final Thread worker = new Thread(this::run, "board-member-ids-migration");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  void run() {
+    logger.info("Backfilling board member ids");
+    final long backfilled = boardMembers.backfillAll();
+    logger.info("Backfilled member ids on {} boards", backfilled);
+  }
+}
@@ -0,0 +1,53 @@
+package com.krterziev.kudosboards.migrations;
+
+import com.krterziev.kudosboards.services.BoardSummaries;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes every board summary from the boards and messages collections. It runs by itself
+ * when there are fewer summaries than boards, as after upgrading to summaries, and on every
+ * start while {@code krterziev.app.migrations.boardSummaries.enabled} is set, to repair them
+ * after writes that bypassed the services.
+ *
+ * <p>The job runs on its own thread once the application is ready and replaces each summary
+ * wholesale, so it is safe to re-run, also by several instances at once. Boards are listed
+ * partially until it finishes. A message posted to a board while its summary is being rebuilt
+ * may be missing from it until the board's next write or rebuild.
+ */
+@Component
+public class BoardSummaryRebuild {
+
+  private static final Logger logger = LoggerFactory.getLogger(BoardSummaryRebuild.class);
+
+  private final BoardSummaries boardSummaries;
+  private final boolean enabled;
+
+  @Autowired
+  public BoardSummaryRebuild(final BoardSummaries boardSummaries,
+      @Value("${krterziev.app.migrations.boardSummaries.enabled:false}") final boolean enabled) {
+    this.boardSummaries = boardSummaries;
+    this.enabled = enabled;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    final Thread worker = new Thread(this::run, "board-summary-rebuild");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  void run() {
+    if (!enabled && !boardSummaries.isIncomplete()) {
+      return;
+    }
+    logger.info("Rebuilding board summaries");
+    final long rebuilt = boardSummaries.rebuildAll();
+    logger.info("Rebuilt {} board summaries", rebuilt);
+  }
+}
@@ -0,0 +1,99 @@
+package com.krterziev.kudosboards.migrations;
+
+import static com.krterziev.kudosboards.repository.References.referencedIds;
+
+import com.krterziev.kudosboards.models.Message;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills {@link Message#getBoardId()} from the legacy {@code boards.messages} reference
+ * arrays. Message pages are read on the indexed {@code boardId} in both storage modes, so the
+ * job runs by itself while any message lacks a board id, as after upgrading, and on every start
+ * while {@code krterziev.app.migrations.messageBoardId.enabled} is set. Pages of a board may
+ * miss its older messages until it finishes.
+ *
+ * <p>The job walks the boards collection in {@code _id} order, a batch at a time, on its own
+ * thread once the application is ready, so it runs while the application keeps serving
+ * traffic. Only messages that do not have a board id yet are touched, which makes the job safe
+ * to re-run or to run on several nodes at once. The legacy arrays are left in place so that
+ * nodes still running in {@code EMBEDDED} mode keep working during a rolling switch.
+ */
+@Component
+public class MessageBoardIdMigration {
+
+  private static final Logger logger = LoggerFactory.getLogger(MessageBoardIdMigration.class);
+  private static final String BOARDS_COLLECTION = "boards";
+
+  private final MongoTemplate mongoTemplate;
+  private final int batchSize;
+  private final boolean enabled;
+
+  @Autowired
+  public MessageBoardIdMigration(final MongoTemplate mongoTemplate,
+      @Value("${krterziev.app.migrations.messageBoardId.batchSize:100}") final int batchSize,
+      @Value("${krterziev.app.migrations.messageBoardId.enabled:false}") final boolean enabled) {
+    this.mongoTemplate = mongoTemplate;
+    this.batchSize = batchSize;
+    this.enabled = enabled;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    final Thread worker = new Thread(this::run, "message-board-id-migration");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  void run() {
+    if (!enabled && !mongoTemplate.exists(
+        Query.query(Criteria.where("boardId").exists(false)), Message.class)) {
+      return;
+    }
+    logger.info("Backfilling message board ids in batches of {} boards", batchSize);
+    ObjectId lastBoardId = null;
+    long boards = 0;
+    long messages = 0;
+    List<Document> batch;
+    do {
+      batch = nextBatch(lastBoardId);
+      for (final Document board : batch) {
+        lastBoardId = board.getObjectId("_id");
+        messages += backfill(lastBoardId.toHexString(), referencedIds(board, "messages"));
+      }
+      boards += batch.size();
+    } while (batch.size() == batchSize);
+    logger.info("Backfilled board ids on {} messages across {} boards", messages, boards);
+  }
+
+  private List<Document> nextBatch(final ObjectId after) {
+    final Query query = after == null ? new Query()
+        : Query.query(Criteria.where("_id").gt(after));
+    query.fields().include("messages");
+    query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+    return mongoTemplate.find(query, Document.class, BOARDS_COLLECTION);
+  }
+
+  private long backfill(final String boardId, final List<Object> messageIds) {
+    if (messageIds.isEmpty()) {
+      return 0;
+    }
+    final Query query = Query.query(
+        Criteria.where("id").in(messageIds).and("boardId").exists(false));
+    return mongoTemplate.updateMulti(query, Update.update("boardId", boardId), Message.class)
+        .getModifiedCount();
+  }
+}
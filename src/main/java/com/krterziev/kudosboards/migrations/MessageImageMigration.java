@@ -0,0 +1,103 @@
+package com.krterziev.kudosboards.migrations;
+
+import com.krterziev.kudosboards.exceptions.InvalidImageException;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.services.MessageImages;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves images stored inline on messages as base64 data URLs into the image store and replaces
+ * them with a reference to the stored blob.
+ *
+ * <p>The job walks the messages with inline images in {@code _id} order, a batch at a time, on
+ * its own thread once the application is ready. A message is only rewritten if its image is
+ * still the one that was read, so concurrent edits win and the job is safe to re-run or to run
+ * on several nodes at once; identical images end up stored once.
+ */
+@Component
+@ConditionalOnProperty(name = "krterziev.app.migrations.messageImages.enabled",
+    havingValue = "true")
+public class MessageImageMigration {
+
+  private static final Logger logger = LoggerFactory.getLogger(MessageImageMigration.class);
+  private static final String MESSAGES_COLLECTION = "messages";
+
+  private final MongoTemplate mongoTemplate;
+  private final MessageImages messageImages;
+  private final int batchSize;
+
+  @Autowired
+  public MessageImageMigration(final MongoTemplate mongoTemplate,
+      final MessageImages messageImages,
+      @Value("${krterziev.app.migrations.messageImages.batchSize:100}") final int batchSize) {
+    this.mongoTemplate = mongoTemplate;
+    this.messageImages = messageImages;
+    this.batchSize = batchSize;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    final Thread worker = new Thread(this::run, "message-image-migration");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  void run() {
+    logger.info("Moving inline message images in batches of {} messages", batchSize);
+    ObjectId lastMessageId = null;
+    long moved = 0;
+    long skipped = 0;
+    List<Document> batch;
+    do {
+      batch = nextBatch(lastMessageId);
+      for (final Document message : batch) {
+        lastMessageId = message.getObjectId("_id");
+        if (move(lastMessageId, message.getString("image"))) {
+          moved++;
+        } else {
+          skipped++;
+        }
+      }
+    } while (batch.size() == batchSize);
+    logger.info("Moved {} inline message images, skipped {}", moved, skipped);
+  }
+
+  private List<Document> nextBatch(final ObjectId after) {
+    final Criteria inline = Criteria.where("image").regex("^data:", "i");
+    final Query query = Query.query(after == null ? inline
+        : new Criteria().andOperator(Criteria.where("_id").gt(after), inline));
+    query.fields().include("image");
+    query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+    return mongoTemplate.find(query, Document.class, MESSAGES_COLLECTION);
+  }
+
+  private boolean move(final ObjectId messageId, final String image) {
+    final String imageId;
+    try {
+      imageId = messageImages.storeDataUrl(image).id();
+    } catch (InvalidImageException ex) {
+      logger.warn("Leaving unreadable inline image on message {}: {}", messageId,
+          ex.getMessage());
+      return false;
+    }
+    final Query unchanged = Query.query(
+        Criteria.where("_id").is(messageId).and("image").is(image));
+    final Update update = new Update().set("imageId", imageId).unset("image");
+    return mongoTemplate.updateFirst(unchanged, update, Message.class).getModifiedCount() == 1L;
+  }
+}
@@ -1,13 +1,18 @@
 package com.krterziev.kudosboards.models;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import javax.validation.constraints.NotBlank;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "boards")
+// Members are queried by the id of their reference, which an index on the whole DBRef misses.
+@CompoundIndex(name = "board_members", def = "{'users.$id': 1}")
 public class Board {
 
   @Id
@@ -18,7 +23,13 @@ public class Board {
   private List<Message> messages;
   @DBRef
   private List<User> users;
+  // The ids of the users above, so that membership is checked without resolving them.
+  @Indexed(name = "board_member_ids")
+  private List<String> memberIds;
+  @Indexed
   private EBoardAccessLevel accessLevel;
+  private long version;
+  private Instant lastModified;
 
   public Board(final String name, final List<Message> messages, final List<User> users,
       final EBoardAccessLevel accessLevel) {
@@ -60,6 +71,14 @@ public class Board {
     this.users = users;
   }
 
+  public List<String> getMemberIds() {
+    return memberIds;
+  }
+
+  public void setMemberIds(List<String> memberIds) {
+    this.memberIds = memberIds;
+  }
+
   public EBoardAccessLevel getAccessLevel() {
     return accessLevel;
   }
@@ -68,6 +87,22 @@ public class Board {
     this.accessLevel = accessLevel;
   }
 
+  public long getVersion() {
+    return version;
+  }
+
+  public void setVersion(long version) {
+    this.version = version;
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+
+  public void setLastModified(Instant lastModified) {
+    this.lastModified = lastModified;
+  }
+
   @Override
   public boolean equals(Object o) {
       if (this == o) {
@@ -79,11 +114,13 @@ public class Board {
     Board board = (Board) o;
     return Objects.equals(id, board.id) && Objects.equals(name, board.name) && Objects.equals(
         messages, board.messages) && Objects.equals(users, board.users)
-        && accessLevel == board.accessLevel;
+        && Objects.equals(memberIds, board.memberIds)
+        && accessLevel == board.accessLevel && version == board.version
+        && Objects.equals(lastModified, board.lastModified);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, name, messages, users, accessLevel);
+    return Objects.hash(id, name, messages, users, memberIds, accessLevel, version, lastModified);
   }
 }
@@ -0,0 +1,5 @@
+package com.krterziev.kudosboards.models;
+
+public record BoardOverview(String id, String name, long messageCount, MessagePage firstPage) {
+
+}
@@ -0,0 +1,120 @@
+package com.krterziev.kudosboards.models;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Denormalised listing entry of a board, kept up to date by the services on every write so
+ * that boards can be listed without loading them. Its id is the id of the board.
+ */
+@Document(collection = "board_summaries")
+@CompoundIndexes({
+    @CompoundIndex(name = "member_boards", def = "{'memberIds': 1, 'lastActivity': -1}"),
+    @CompoundIndex(name = "access_level_boards", def = "{'accessLevel': 1, 'lastActivity': -1}")
+})
+public class BoardSummary {
+
+  @Id
+  private String id;
+  private String name;
+  private EBoardAccessLevel accessLevel;
+  private List<String> memberIds;
+  private long messageCount;
+  private Instant lastActivity;
+  private List<MessagePreview> latestMessages;
+
+  public BoardSummary(final String id, final String name, final EBoardAccessLevel accessLevel,
+      final List<String> memberIds, final long messageCount, final Instant lastActivity,
+      final List<MessagePreview> latestMessages) {
+    this.id = id;
+    this.name = name;
+    this.accessLevel = accessLevel;
+    this.memberIds = memberIds;
+    this.messageCount = messageCount;
+    this.lastActivity = lastActivity;
+    this.latestMessages = latestMessages;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public EBoardAccessLevel getAccessLevel() {
+    return accessLevel;
+  }
+
+  public void setAccessLevel(EBoardAccessLevel accessLevel) {
+    this.accessLevel = accessLevel;
+  }
+
+  public List<String> getMemberIds() {
+    return memberIds;
+  }
+
+  public void setMemberIds(List<String> memberIds) {
+    this.memberIds = memberIds;
+  }
+
+  public long getMessageCount() {
+    return messageCount;
+  }
+
+  public void setMessageCount(long messageCount) {
+    this.messageCount = messageCount;
+  }
+
+  public Instant getLastActivity() {
+    return lastActivity;
+  }
+
+  public void setLastActivity(Instant lastActivity) {
+    this.lastActivity = lastActivity;
+  }
+
+  public List<MessagePreview> getLatestMessages() {
+    return latestMessages;
+  }
+
+  public void setLatestMessages(List<MessagePreview> latestMessages) {
+    this.latestMessages = latestMessages;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BoardSummary that = (BoardSummary) o;
+    return messageCount == that.messageCount && Objects.equals(id, that.id)
+        && Objects.equals(name, that.name) && accessLevel == that.accessLevel
+        && Objects.equals(memberIds, that.memberIds)
+        && Objects.equals(lastActivity, that.lastActivity)
+        && Objects.equals(latestMessages, that.latestMessages);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, name, accessLevel, memberIds, messageCount, lastActivity,
+        latestMessages);
+  }
+}
@@ -0,0 +1,10 @@
+package com.krterziev.kudosboards.models;
+
+import java.time.Instant;
+
+/**
+ * The revision of a board, bumped by every change to it or to its messages.
+ */
+public record BoardVersion(long version, Instant lastModified) {
+
+}
@@ -0,0 +1,8 @@
+package com.krterziev.kudosboards.models;
+
+public enum EMemberAddition {
+  ADDED,
+  ALREADY_MEMBER,
+  USER_NOT_FOUND,
+  INVALID_ID
+}
@@ -0,0 +1,6 @@
+package com.krterziev.kudosboards.models;
+
+public enum EMessageStorage {
+  EMBEDDED,
+  BOARD_ID
+}
@@ -0,0 +1,11 @@
+package com.krterziev.kudosboards.models;
+
+/**
+ * Where the token filters take the principal of an authenticated request from. {@code CLAIMS}
+ * builds it from the verified access token alone; {@code USER_DETAILS} loads the user named by
+ * the token, as tokens without claims required.
+ */
+public enum EPrincipalSource {
+  CLAIMS,
+  USER_DETAILS
+}
@@ -0,0 +1,8 @@
+package com.krterziev.kudosboards.models;
+
+/**
+ * What became of one user id of a request to add users to a board.
+ */
+public record MemberAdditionResult(String userId, EMemberAddition outcome) {
+
+}
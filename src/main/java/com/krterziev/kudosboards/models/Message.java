@@ -3,26 +3,32 @@ package com.krterziev.kudosboards.models;
 import java.time.Instant;
 import java.util.Objects;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.format.annotation.DateTimeFormat;
 
 @Document(collection = "messages")
+@CompoundIndex(name = "board_messages_by_id", def = "{'boardId': 1, '_id': 1}")
 public class Message {
 
   @Id
   private String id;
+  private String boardId;
   private String text;
   private String image;
+  private String imageId;
   @DateTimeFormat
   private Instant lastUpdated;
   @DBRef
   private User createdBy;
 
-  public Message(final String text,
+  public Message(final String boardId,
+      final String text,
       final String image,
       final Instant lastUpdated,
       final User createdBy) {
+    this.boardId = boardId;
     this.text = text;
     this.image = image;
     this.lastUpdated = lastUpdated;
@@ -37,6 +43,14 @@ public class Message {
     this.id = id;
   }
 
+  public String getBoardId() {
+    return boardId;
+  }
+
+  public void setBoardId(String boardId) {
+    this.boardId = boardId;
+  }
+
   public String getText() {
     return text;
   }
@@ -53,6 +67,14 @@ public class Message {
     this.image = image;
   }
 
+  public String getImageId() {
+    return imageId;
+  }
+
+  public void setImageId(String imageId) {
+    this.imageId = imageId;
+  }
+
   public Instant getLastUpdated() {
     return lastUpdated;
   }
@@ -78,14 +100,16 @@ public class Message {
           return false;
       }
     Message message = (Message) o;
-    return Objects.equals(id, message.id) && Objects.equals(text, message.text) && Objects.equals(
-        image, message.image) && Objects.equals(lastUpdated, message.lastUpdated) && Objects.equals(
+    return Objects.equals(id, message.id) && Objects.equals(boardId, message.boardId)
+        && Objects.equals(text, message.text) && Objects.equals(
+        image, message.image) && Objects.equals(imageId, message.imageId)
+        && Objects.equals(lastUpdated, message.lastUpdated) && Objects.equals(
         createdBy, message.createdBy);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(id, text, image, lastUpdated, createdBy);
+    return Objects.hash(id, boardId, text, image, imageId, lastUpdated, createdBy);
   }
 }
 
@@ -0,0 +1,19 @@
+package com.krterziev.kudosboards.models;
+
+/**
+ * Either a created message or the reason it was rejected.
+ */
+public record MessageCreationResult(Message message, String error) {
+
+  public static MessageCreationResult created(final Message message) {
+    return new MessageCreationResult(message, null);
+  }
+
+  public static MessageCreationResult rejected(final String error) {
+    return new MessageCreationResult(null, error);
+  }
+
+  public boolean isCreated() {
+    return message != null;
+  }
+}
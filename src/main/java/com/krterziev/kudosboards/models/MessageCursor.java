@@ -0,0 +1,35 @@
+package com.krterziev.kudosboards.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.bson.types.ObjectId;
+
+/**
+ * Position of a message in a board's message listing. Messages are listed by id, which is the
+ * order they were posted in and does not change when a message is edited, so a cursor never
+ * skips or repeats a message.
+ */
+public record MessageCursor(String id) {
+
+  public static MessageCursor of(final Message message) {
+    return new MessageCursor(message.getId());
+  }
+
+  /**
+   * Decodes a cursor previously produced by {@link #encode()}.
+   *
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static MessageCursor decode(final String cursor) {
+    final String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    if (!ObjectId.isValid(id)) {
+      throw new IllegalArgumentException(String.format("Invalid cursor %s", cursor));
+    }
+    return new MessageCursor(id);
+  }
+
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(id.getBytes(StandardCharsets.UTF_8));
+  }
+}
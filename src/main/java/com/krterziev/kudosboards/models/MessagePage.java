@@ -0,0 +1,7 @@
+package com.krterziev.kudosboards.models;
+
+import java.util.List;
+
+public record MessagePage(List<Message> messages, MessageCursor nextCursor) {
+
+}
@@ -0,0 +1,11 @@
+package com.krterziev.kudosboards.models;
+
+import java.time.Instant;
+
+/**
+ * A shortened copy of a message kept on its {@link BoardSummary}. {@code image} is the URL the
+ * message's image is served from, if it has one.
+ */
+public record MessagePreview(String messageId, String text, String image, Instant lastUpdated) {
+
+}
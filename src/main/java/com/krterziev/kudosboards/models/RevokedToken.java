@@ -0,0 +1,81 @@
+package com.krterziev.kudosboards.models;
+
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A JWT that must no longer be accepted, keyed by its {@code jti}. Mongo deletes the document
+ * once the token has expired anyway.
+ */
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+
+  @Id
+  private String id;
+  private String username;
+  @Indexed(name = "revoked_token_expiry", expireAfterSeconds = 0)
+  private Instant expiresAt;
+  @Indexed(name = "revoked_token_time")
+  private Instant revokedAt;
+
+  public RevokedToken(final String id, final String username, final Instant expiresAt,
+      final Instant revokedAt) {
+    this.id = id;
+    this.username = username;
+    this.expiresAt = expiresAt;
+    this.revokedAt = revokedAt;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public Instant getExpiresAt() {
+    return expiresAt;
+  }
+
+  public void setExpiresAt(Instant expiresAt) {
+    this.expiresAt = expiresAt;
+  }
+
+  public Instant getRevokedAt() {
+    return revokedAt;
+  }
+
+  public void setRevokedAt(Instant revokedAt) {
+    this.revokedAt = revokedAt;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RevokedToken that = (RevokedToken) o;
+    return Objects.equals(id, that.id) && Objects.equals(username, that.username)
+        && Objects.equals(expiresAt, that.expiresAt) && Objects.equals(revokedAt, that.revokedAt);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, username, expiresAt, revokedAt);
+  }
+}
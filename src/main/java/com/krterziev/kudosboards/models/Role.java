@@ -1,6 +1,7 @@
 package com.krterziev.kudosboards.models;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "roles")
@@ -9,6 +10,7 @@ public class Role {
   @Id
   private String id;
 
+  @Indexed(unique = true)
   private ERole name;
 
   public Role() {
@@ -6,22 +6,28 @@ import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "users")
 public class User {
 
+  public static final String USERNAME_INDEX = "unique_username";
+  public static final String EMAIL_INDEX = "unique_email";
+
   @Id
   private String id;
 
   @NotBlank
   @Size(max = 20)
+  @Indexed(name = USERNAME_INDEX, unique = true)
   private String username;
 
   @NotBlank
   @Size(max = 50)
   @Email
+  @Indexed(name = EMAIL_INDEX, unique = true)
   private String email;
 
   @NotBlank
@@ -0,0 +1,7 @@
+package com.krterziev.kudosboards.payload.request;
+
+import java.util.List;
+
+public record BoardMembersRequest(List<String> userIds) {
+
+}
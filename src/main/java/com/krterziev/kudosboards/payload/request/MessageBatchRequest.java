@@ -0,0 +1,7 @@
+package com.krterziev.kudosboards.payload.request;
+
+import java.util.List;
+
+public record MessageBatchRequest(List<MessageRequest> messages) {
+
+}
@@ -1,5 +1,9 @@
 package com.krterziev.kudosboards.payload.request;
 
-public record MessageRequest(String text, String image) {
+/**
+ * {@code imageId} refers to an image uploaded to {@code /api/images}. {@code image} may instead
+ * carry an external link, or a data URL which is moved to the image store on write.
+ */
+public record MessageRequest(String text, String image, String imageId) {
 
 }
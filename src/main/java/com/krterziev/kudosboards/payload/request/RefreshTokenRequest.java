@@ -0,0 +1,17 @@
+package com.krterziev.kudosboards.payload.request;
+
+import javax.validation.constraints.NotBlank;
+
+public class RefreshTokenRequest {
+
+  @NotBlank
+  private String refreshToken;
+
+  public String getRefreshToken() {
+    return refreshToken;
+  }
+
+  public void setRefreshToken(String refreshToken) {
+    this.refreshToken = refreshToken;
+  }
+}
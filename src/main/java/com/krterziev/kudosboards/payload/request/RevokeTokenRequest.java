@@ -0,0 +1,17 @@
+package com.krterziev.kudosboards.payload.request;
+
+import javax.validation.constraints.NotBlank;
+
+public class RevokeTokenRequest {
+
+  @NotBlank
+  private String token;
+
+  public String getToken() {
+    return token;
+  }
+
+  public void setToken(String token) {
+    this.token = token;
+  }
+}
@@ -0,0 +1,6 @@
+package com.krterziev.kudosboards.payload.response;
+
+public record BoardEventResponse(String type, String boardId, String messageId,
+                                 MessageResponse message) {
+
+}
@@ -0,0 +1,9 @@
+package com.krterziev.kudosboards.payload.response;
+
+/**
+ * Outcome of one user id of a batch, in request order. {@code error} is set for ids that were
+ * rejected.
+ */
+public record BoardMemberBatchItemResponse(int index, String userId, int status, String error) {
+
+}
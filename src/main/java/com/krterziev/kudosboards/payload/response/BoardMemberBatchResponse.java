@@ -0,0 +1,8 @@
+package com.krterziev.kudosboards.payload.response;
+
+import java.util.List;
+
+public record BoardMemberBatchResponse(int added, int unchanged, int rejected,
+                                       List<BoardMemberBatchItemResponse> results) {
+
+}
@@ -0,0 +1,8 @@
+package com.krterziev.kudosboards.payload.response;
+
+import java.util.List;
+
+public record BoardOverviewResponse(String id, String name, long messageCount,
+                                    List<MessageResponse> messages, String nextCursor) {
+
+}
@@ -0,0 +1,9 @@
+package com.krterziev.kudosboards.payload.response;
+
+import java.time.Instant;
+import java.util.List;
+
+public record BoardSummaryResponse(String id, String name, String accessLevel, long messageCount,
+                                   Instant lastActivity, List<MessageResponse> latestMessages) {
+
+}
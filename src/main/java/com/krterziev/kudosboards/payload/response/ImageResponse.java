@@ -0,0 +1,5 @@
+package com.krterziev.kudosboards.payload.response;
+
+public record ImageResponse(String id, String url) {
+
+}
@@ -5,15 +5,17 @@ import java.util.List;
 public class JwtResponse {
 
   private String token;
+  private String refreshToken;
   private String type = "Bearer";
   private String id;
   private String username;
   private String email;
   private final List<String> roles;
 
-  public JwtResponse(String accessToken, String id, String username, String email,
-      List<String> roles) {
+  public JwtResponse(String accessToken, String refreshToken, String id, String username,
+      String email, List<String> roles) {
     this.token = accessToken;
+    this.refreshToken = refreshToken;
     this.id = id;
     this.username = username;
     this.email = email;
@@ -28,6 +30,14 @@ public class JwtResponse {
     this.token = accessToken;
   }
 
+  public String getRefreshToken() {
+    return refreshToken;
+  }
+
+  public void setRefreshToken(String refreshToken) {
+    this.refreshToken = refreshToken;
+  }
+
   public String getTokenType() {
     return type;
   }
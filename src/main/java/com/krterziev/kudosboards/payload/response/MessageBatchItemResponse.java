@@ -0,0 +1,10 @@
+package com.krterziev.kudosboards.payload.response;
+
+/**
+ * Outcome of one message of a batch, in request order. {@code id} and {@code location} are set
+ * for created messages and {@code error} for rejected ones.
+ */
+public record MessageBatchItemResponse(int index, int status, String id, String location,
+                                       String error) {
+
+}
@@ -0,0 +1,8 @@
+package com.krterziev.kudosboards.payload.response;
+
+import java.util.List;
+
+public record MessageBatchResponse(int created, int rejected,
+                                   List<MessageBatchItemResponse> results) {
+
+}
@@ -0,0 +1,7 @@
+package com.krterziev.kudosboards.payload.response;
+
+import java.util.List;
+
+public record MessagePageResponse(List<MessageResponse> messages, String nextCursor) {
+
+}
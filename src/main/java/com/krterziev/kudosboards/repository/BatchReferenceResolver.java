@@ -0,0 +1,228 @@
+package com.krterziev.kudosboards.repository;
+
+import static com.krterziev.kudosboards.repository.References.referencedId;
+import static com.krterziev.kudosboards.repository.References.referencedIds;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.Role;
+import com.krterziev.kudosboards.models.User;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Loads boards and messages together with their {@code DBRef}s, fetching every referenced
+ * document of a page in one {@code $in} query per collection instead of one query per reference.
+ *
+ * <p>Documents are read with their reference fields removed, so that the converter resolves none
+ * of them one by one, and the referenced documents are attached afterwards. References that are
+ * only needed for their id, such as the members of a board read without its users, are attached
+ * as id-only users.
+ *
+ * <p>Referenced documents are kept in an identity map. While an HTTP request is being served the
+ * map is bound to that request, so a document referenced from several places is fetched and
+ * mapped only once per request; outside a request each call gets its own map.
+ */
+@Component
+public class BatchReferenceResolver {
+
+  private static final String IDENTITY_MAP_ATTRIBUTE =
+      BatchReferenceResolver.class.getName() + ".identityMap";
+
+  private final MongoTemplate mongoTemplate;
+  private final QueryMapper queryMapper;
+
+  @Autowired
+  public BatchReferenceResolver(final MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+    this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+  }
+
+  public List<Board> findBoards(final Query query) {
+    return findBoards(query, false);
+  }
+
+  public List<Board> findBoardsWithUsers(final Query query) {
+    return findBoards(query, true);
+  }
+
+  public List<Message> findMessages(final Query query) {
+    return findMessages(query, false, identityMap());
+  }
+
+  public List<Message> findMessagesWithCreators(final Query query) {
+    return findMessages(query, true, identityMap());
+  }
+
+  private List<Board> findBoards(final Query query, final boolean withUsers) {
+    final Map<Reference, Object> identityMap = identityMap();
+    final List<Document> documents = findDocuments(query, Board.class);
+    resolveMessages(allReferencedIds(documents, "messages"), identityMap);
+    if (withUsers) {
+      resolveUsers(allReferencedIds(documents, "users"), identityMap);
+    }
+
+    final List<Board> boards = new ArrayList<>(documents.size());
+    for (final Document document : documents) {
+      final Board board = read(Board.class, document, "messages", "users");
+      board.setMessages(lookup(Message.class, referencedIds(document, "messages"), identityMap));
+      board.setUsers(withUsers
+          ? lookup(User.class, referencedIds(document, "users"), identityMap)
+          : referencedIds(document, "users").stream()
+              .map(BatchReferenceResolver::userReference).toList());
+      boards.add(board);
+    }
+    return boards;
+  }
+
+  private List<Message> findMessages(final Query query, final boolean withCreators,
+      final Map<Reference, Object> identityMap) {
+    final List<Document> documents = findDocuments(query, Message.class);
+    if (withCreators) {
+      resolveUsers(documents.stream().map(document -> document.get("createdBy"))
+          .filter(Objects::nonNull).map(References::referencedId).toList(), identityMap);
+    }
+
+    final List<Message> messages = new ArrayList<>(documents.size());
+    for (final Document document : documents) {
+      final Object createdBy = document.get("createdBy");
+      final Message message = read(Message.class, document, "createdBy");
+      if (createdBy != null) {
+        message.setCreatedBy(withCreators
+            ? (User) identityMap.get(new Reference(User.class, referencedId(createdBy)))
+            : userReference(referencedId(createdBy)));
+      }
+      identityMap.put(new Reference(Message.class, document.get("_id")), message);
+      messages.add(message);
+    }
+    return messages;
+  }
+
+  private void resolveMessages(final Collection<Object> ids,
+      final Map<Reference, Object> identityMap) {
+    final List<Object> missing = missingIds(Message.class, ids, identityMap);
+    if (!missing.isEmpty()) {
+      findMessages(Query.query(Criteria.where("id").in(missing)), false, identityMap);
+    }
+  }
+
+  private void resolveUsers(final Collection<Object> ids,
+      final Map<Reference, Object> identityMap) {
+    final List<Object> missing = missingIds(User.class, ids, identityMap);
+    if (missing.isEmpty()) {
+      return;
+    }
+    final List<Document> documents =
+        findDocuments(Query.query(Criteria.where("id").in(missing)), User.class);
+    resolveRoles(allReferencedIds(documents, "roles"), identityMap);
+
+    for (final Document document : documents) {
+      final User user = read(User.class, document, "roles");
+      user.setRoles(new HashSet<>(
+          lookup(Role.class, referencedIds(document, "roles"), identityMap)));
+      identityMap.put(new Reference(User.class, document.get("_id")), user);
+    }
+  }
+
+  private void resolveRoles(final Collection<Object> ids,
+      final Map<Reference, Object> identityMap) {
+    final List<Object> missing = missingIds(Role.class, ids, identityMap);
+    if (missing.isEmpty()) {
+      return;
+    }
+    for (final Document document :
+        findDocuments(Query.query(Criteria.where("id").in(missing)), Role.class)) {
+      identityMap.put(new Reference(Role.class, document.get("_id")),
+          read(Role.class, document));
+    }
+  }
+
+  private List<Document> findDocuments(final Query query, final Class<?> type) {
+    final MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+        .getRequiredPersistentEntity(type);
+    final Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+    final Document fields = queryMapper.getMappedFields(query.getFieldsObject(), entity);
+    final Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+    return mongoTemplate.execute(entity.getCollection(), collection -> collection.find(filter)
+        .projection(fields)
+        .sort(sort)
+        .limit(query.getLimit())
+        .into(new ArrayList<>()));
+  }
+
+  private <T> T read(final Class<T> type, final Document document,
+      final String... referenceFields) {
+    final Document withoutReferences = new Document(document);
+    for (final String field : referenceFields) {
+      withoutReferences.remove(field);
+    }
+    return mongoTemplate.getConverter().read(type, withoutReferences);
+  }
+
+  private static List<Object> allReferencedIds(final List<Document> documents,
+      final String field) {
+    final Set<Object> ids = new LinkedHashSet<>();
+    documents.forEach(document -> ids.addAll(referencedIds(document, field)));
+    return new ArrayList<>(ids);
+  }
+
+  private static List<Object> missingIds(final Class<?> type, final Collection<Object> ids,
+      final Map<Reference, Object> identityMap) {
+    return ids.stream()
+        .filter(id -> !identityMap.containsKey(new Reference(type, id)))
+        .distinct()
+        .toList();
+  }
+
+  private static User userReference(final Object id) {
+    final User user = new User();
+    user.setId(id.toString());
+    return user;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> List<T> lookup(final Class<T> type, final List<Object> ids,
+      final Map<Reference, Object> identityMap) {
+    return ids.stream()
+        .map(id -> (T) identityMap.get(new Reference(type, id)))
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<Reference, Object> identityMap() {
+    final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return new HashMap<>();
+    }
+    Map<Reference, Object> identityMap = (Map<Reference, Object>) attributes.getAttribute(
+        IDENTITY_MAP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (identityMap == null) {
+      identityMap = new HashMap<>();
+      attributes.setAttribute(IDENTITY_MAP_ATTRIBUTE, identityMap,
+          RequestAttributes.SCOPE_REQUEST);
+    }
+    return identityMap;
+  }
+
+  private record Reference(Class<?> type, Object id) {
+
+  }
+}
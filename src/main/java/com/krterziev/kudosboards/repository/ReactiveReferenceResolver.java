@@ -0,0 +1,130 @@
+package com.krterziev.kudosboards.repository;
+
+import static com.krterziev.kudosboards.repository.References.referencedId;
+import static com.krterziev.kudosboards.repository.References.referencedIds;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.Role;
+import com.krterziev.kudosboards.models.User;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link BatchReferenceResolver}.
+ *
+ * <p>The reactive template cannot resolve {@code DBRef}s, so documents are read raw, their
+ * reference fields are removed before mapping and the referenced documents are attached
+ * afterwards, fetched with one {@code $in} query per collection. References that are only needed
+ * for their id, such as board members and message authors, are attached as id-only users.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveReferenceResolver {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final QueryMapper queryMapper;
+
+  @Autowired
+  public ReactiveReferenceResolver(final ReactiveMongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+    this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+  }
+
+  public Flux<Board> findBoards(final Query query) {
+    return findDocuments(query, Board.class).collectList().flatMapMany(documents -> {
+      final List<Object> messageIds = distinctReferencedIds(documents, "messages");
+      final Mono<Map<String, Message>> messages = messageIds.isEmpty() ? Mono.just(Map.of())
+          : findMessages(Query.query(Criteria.where("id").in(messageIds)))
+              .collectMap(Message::getId);
+      return messages.flatMapIterable(resolved -> documents.stream().map(document -> {
+        final List<Object> boardMessageIds = referencedIds(document, "messages");
+        final List<Object> userIds = referencedIds(document, "users");
+        final Board board = read(Board.class, document, "messages", "users");
+        board.setMessages(boardMessageIds.stream().map(id -> resolved.get(id.toString()))
+            .filter(Objects::nonNull).toList());
+        board.setUsers(userIds.stream().map(ReactiveReferenceResolver::userReference).toList());
+        return board;
+      }).toList());
+    });
+  }
+
+  public Flux<Message> findMessages(final Query query) {
+    return findDocuments(query, Message.class).map(document -> {
+      final Object createdBy = document.get("createdBy");
+      final Message message = read(Message.class, document, "createdBy");
+      if (createdBy != null) {
+        message.setCreatedBy(userReference(referencedId(createdBy)));
+      }
+      return message;
+    });
+  }
+
+  public Mono<User> findUser(final Query query) {
+    return findDocuments(query, User.class).next().flatMap(document -> {
+      final List<Object> roleIds = referencedIds(document, "roles");
+      final User user = read(User.class, document, "roles");
+      if (roleIds.isEmpty()) {
+        return Mono.just(user);
+      }
+      return findDocuments(Query.query(Criteria.where("id").in(roleIds)), Role.class)
+          .map(role -> read(Role.class, role))
+          .collect(HashSet<Role>::new, Set::add)
+          .map(roles -> {
+            user.setRoles(roles);
+            return user;
+          });
+    });
+  }
+
+  private Flux<Document> findDocuments(final Query query, final Class<?> type) {
+    final MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+        .getRequiredPersistentEntity(type);
+    final Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+    final Document fields = queryMapper.getMappedFields(query.getFieldsObject(), entity);
+    final Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+    return mongoTemplate.execute(entity.getCollection(), collection -> collection.find(filter)
+        .projection(fields)
+        .sort(sort)
+        .limit(query.getLimit()));
+  }
+
+  private <T> T read(final Class<T> type, final Document document,
+      final String... referenceFields) {
+    final Document withoutReferences = new Document(document);
+    for (final String field : referenceFields) {
+      withoutReferences.remove(field);
+    }
+    return mongoTemplate.getConverter().read(type, withoutReferences);
+  }
+
+  private static List<Object> distinctReferencedIds(final Collection<Document> documents,
+      final String field) {
+    final Set<Object> ids = new LinkedHashSet<>();
+    documents.forEach(document -> ids.addAll(referencedIds(document, field)));
+    return List.copyOf(ids);
+  }
+
+  private static User userReference(final Object id) {
+    final User user = new User();
+    user.setId(id.toString());
+    return user;
+  }
+}
@@ -0,0 +1,31 @@
+package com.krterziev.kudosboards.repository;
+
+import com.mongodb.DBRef;
+import java.util.Collections;
+import java.util.List;
+import org.bson.Document;
+
+/**
+ * Reads the ids out of {@code DBRef} fields of raw documents without resolving them.
+ */
+public class References {
+
+  private References() {
+  }
+
+  public static List<Object> referencedIds(final Document document, final String field) {
+    return document.getList(field, Object.class, Collections.emptyList()).stream()
+        .map(References::referencedId)
+        .toList();
+  }
+
+  public static Object referencedId(final Object reference) {
+    if (reference instanceof DBRef dbRef) {
+      return dbRef.getId();
+    }
+    if (reference instanceof Document document) {
+      return document.get("$id");
+    }
+    return reference;
+  }
+}
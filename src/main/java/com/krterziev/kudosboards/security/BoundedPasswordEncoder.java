@@ -0,0 +1,131 @@
+package com.krterziev.kudosboards.security;
+
+import com.krterziev.kudosboards.exceptions.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * BCrypt password encoder that hashes on a small pool of its own instead of on the calling
+ * thread, so that a burst of sign-ins cannot take every core from the request threads serving
+ * boards.
+ *
+ * <p>The pool runs {@code krterziev.app.passwords.threads} hashes at once and queues up to
+ * {@code queueCapacity} more. Work arriving when the queue is full is rejected straight away with
+ * {@link PasswordHashingUnavailableException}, answered with 503, rather than left to wait behind
+ * a backlog it would time out in anyway. Callers still block until their hash is done.
+ *
+ * <p>Hashes use the work factor {@code krterziev.app.passwords.strength}. Hashes made with
+ * another factor still match, and {@link #upgradeEncoding} reports them so that the
+ * authentication managers rehash a password with the current factor once its user signs in.
+ */
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+  private static final Pattern BCRYPT_STRENGTH = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+  private final BCryptPasswordEncoder encoder;
+  private final int strength;
+  private final ThreadPoolExecutor hashers;
+  private final Timer encodeTimer;
+  private final Timer matchTimer;
+  private final Counter rejections;
+
+  @Autowired
+  public BoundedPasswordEncoder(final MeterRegistry meterRegistry,
+      @Value("${krterziev.app.passwords.strength:10}") final int strength,
+      @Value("${krterziev.app.passwords.threads:0}") final int threads,
+      @Value("${krterziev.app.passwords.queueCapacity:64}") final int queueCapacity) {
+    this.encoder = new BCryptPasswordEncoder(strength);
+    this.strength = strength;
+    final int poolSize = threads > 0 ? threads
+        : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    this.hashers = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.encodeTimer = hashTimer(meterRegistry, "encode");
+    this.matchTimer = hashTimer(meterRegistry, "matches");
+    this.rejections = Counter.builder("kudos.auth.password.rejected")
+        .description("Password hashes rejected because the hashing queue was full")
+        .register(meterRegistry);
+    Gauge.builder("kudos.auth.password.queue", hashers, pool -> pool.getQueue().size())
+        .description("Password hashes waiting for a hashing thread")
+        .register(meterRegistry);
+    Gauge.builder("kudos.auth.password.active", hashers, ThreadPoolExecutor::getActiveCount)
+        .description("Password hashes in progress")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public String encode(final CharSequence rawPassword) {
+    return hash(() -> encodeTimer.recordCallable(() -> encoder.encode(rawPassword)));
+  }
+
+  @Override
+  public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+    return hash(() -> matchTimer.recordCallable(
+        () -> encoder.matches(rawPassword, encodedPassword)));
+  }
+
+  @Override
+  public boolean upgradeEncoding(final String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    final Matcher matcher = BCRYPT_STRENGTH.matcher(encodedPassword);
+    return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+  }
+
+  @Override
+  public void destroy() {
+    hashers.shutdownNow();
+  }
+
+  private <T> T hash(final Callable<T> work) {
+    final Future<T> result;
+    try {
+      result = hashers.submit(work);
+    } catch (RejectedExecutionException ex) {
+      rejections.increment();
+      throw new PasswordHashingUnavailableException(ex);
+    }
+
+    try {
+      return result.get();
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException("Cannot hash password", ex.getCause());
+    } catch (InterruptedException ex) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new PasswordHashingUnavailableException(ex);
+    }
+  }
+
+  private static Timer hashTimer(final MeterRegistry meterRegistry, final String operation) {
+    return Timer.builder("kudos.auth.password.hash")
+        .description("Time spent hashing passwords, excluding the wait in the queue")
+        .tag("operation", operation)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+}
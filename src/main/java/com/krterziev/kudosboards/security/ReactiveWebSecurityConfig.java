@@ -0,0 +1,65 @@
+package com.krterziev.kudosboards.security;
+
+import com.krterziev.kudosboards.models.EPrincipalSource;
+import com.krterziev.kudosboards.security.jwt.JwtUtils;
+import com.krterziev.kudosboards.security.jwt.ReactiveAuthTokenFilter;
+import com.krterziev.kudosboards.security.jwt.TokenRevocations;
+import com.krterziev.kudosboards.security.services.ReactiveUserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Stateless JWT security for the {@code reactive} profile, mirroring {@link WebSecurityConfig}.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveWebSecurityConfig {
+
+  @Bean
+  public ReactiveAuthenticationManager authenticationManager(
+      final ReactiveUserDetailsServiceImpl userDetailsService,
+      final PasswordEncoder passwordEncoder) {
+    final UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+        new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+    authenticationManager.setPasswordEncoder(passwordEncoder);
+    authenticationManager.setUserDetailsPasswordService(userDetailsService);
+    return authenticationManager;
+  }
+
+  @Bean
+  public SecurityWebFilterChain securityWebFilterChain(final ServerHttpSecurity http,
+      final JwtUtils jwtUtils, final ReactiveUserDetailsServiceImpl userDetailsService,
+      final TokenRevocations tokenRevocations,
+      @Value("${krterziev.app.jwtPrincipal:CLAIMS}") final EPrincipalSource principalSource) {
+    return http.cors().and().csrf().disable()
+        .httpBasic().disable()
+        .formLogin().disable()
+        .logout().disable()
+        .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+        .exceptionHandling()
+        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)).and()
+        .authorizeExchange().pathMatchers("/api/auth/**").permitAll()
+        .pathMatchers("/api/boards/**").permitAll()
+        .pathMatchers("/actuator/health").permitAll()
+        .pathMatchers("/actuator/prometheus").hasRole("ADMIN")
+        .anyExchange().authenticated().and()
+        .addFilterAt(new ReactiveAuthTokenFilter(jwtUtils, userDetailsService, tokenRevocations,
+                principalSource),
+            SecurityWebFiltersOrder.AUTHENTICATION)
+        .build();
+  }
+}
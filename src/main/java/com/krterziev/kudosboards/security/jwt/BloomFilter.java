@@ -0,0 +1,76 @@
+package com.krterziev.kudosboards.security.jwt;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter of strings that can be read and added to concurrently. It is sized
+ * for an expected number of entries and false positive rate; adding more entries than expected
+ * raises the false positive rate, which {@link #isSaturated()} reports.
+ */
+final class BloomFilter {
+
+  private static final double LN_2 = Math.log(2);
+
+  private final AtomicLongArray words;
+  private final int bitCount;
+  private final int hashCount;
+  private final int expectedEntries;
+  private final AtomicInteger entries = new AtomicInteger();
+
+  BloomFilter(final int expectedEntries, final double falsePositiveRate) {
+    this.expectedEntries = Math.max(1, expectedEntries);
+    final double bits = -this.expectedEntries * Math.log(falsePositiveRate) / (LN_2 * LN_2);
+    this.bitCount = (int) Math.max(Long.SIZE, Math.min(Math.ceil(bits), Integer.MAX_VALUE - 63));
+    this.hashCount = Math.max(1, (int) Math.round(bitCount * LN_2 / this.expectedEntries));
+    this.words = new AtomicLongArray((bitCount + Long.SIZE - 1) / Long.SIZE);
+  }
+
+  void add(final String value) {
+    final long hash = hash(value);
+    final int first = (int) hash;
+    final int second = (int) (hash >>> 32);
+    for (int i = 0; i < hashCount; i++) {
+      final int bit = Math.floorMod(first + i * second, bitCount);
+      final long mask = 1L << bit;
+      words.getAndUpdate(bit >>> 6, word -> word | mask);
+    }
+    entries.incrementAndGet();
+  }
+
+  boolean mightContain(final String value) {
+    final long hash = hash(value);
+    final int first = (int) hash;
+    final int second = (int) (hash >>> 32);
+    for (int i = 0; i < hashCount; i++) {
+      final int bit = Math.floorMod(first + i * second, bitCount);
+      if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  int size() {
+    return entries.get();
+  }
+
+  boolean isSaturated() {
+    return entries.get() > expectedEntries;
+  }
+
+  /**
+   * 64-bit FNV-1a, finished with the SplitMix64 mixer so that both halves, which seed the
+   * double hashing above, are well distributed.
+   */
+  private static long hash(final String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+    return hash ^ (hash >>> 31);
+  }
+}
@@ -1,46 +1,199 @@
 package com.krterziev.kudosboards.security.jwt;
 
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.spec.SecretKeySpec;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.impl.TextCodec;
 
+/**
+ * Issues and verifies the JWTs handed out at sign-in.
+ *
+ * <p>Access tokens carry the user's id, email and role authorities next to the username, so that
+ * a request can be authenticated from the token alone. They are short-lived, and refresh tokens,
+ * which carry only the username and id, are exchanged for new ones with the roles the user has
+ * at that time. A role change therefore reaches every client within one access token lifetime.
+ * Every token has an id ({@code jti}) by which {@link TokenRevocations} can revoke it.
+ */
 @Component
-public class JwtUtils {
+public class JwtUtils implements MeterBinder {
 	private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-	@Value("${krterziev.app.jwtSecret}")
-	private String jwtSecret;
+	private static final String USER_ID_CLAIM = "uid";
+	private static final String EMAIL_CLAIM = "email";
+	private static final String ROLES_CLAIM = "roles";
+	private static final String TOKEN_TYPE_CLAIM = "type";
+	private static final String ACCESS_TOKEN = "access";
+	private static final String REFRESH_TOKEN = "refresh";
 
-	@Value("${krterziev.app.jwtExpirationMs}")
-	private int jwtExpirationMs;
+	private final int jwtExpirationMs;
+
+	private final long jwtRefreshExpirationMs;
+
+	private final Key signingKey;
+
+	/**
+	 * Claims of recently verified tokens, keyed by the SHA-256 digest of the token so that bearer
+	 * tokens themselves are not kept in memory. Entries expire together with their token.
+	 */
+	private final Cache<String, Claims> verifiedTokens;
+
+	@Autowired
+	public JwtUtils(@Value("${krterziev.app.jwtSecret}") String jwtSecret,
+			@Value("${krterziev.app.jwtExpirationMs}") int jwtExpirationMs,
+			@Value("${krterziev.app.jwtRefreshExpirationMs:604800000}") long jwtRefreshExpirationMs,
+			@Value("${krterziev.app.jwtCache.maximumSize:10000}") long verifiedTokenCacheSize) {
+		this.jwtExpirationMs = jwtExpirationMs;
+		this.jwtRefreshExpirationMs = jwtRefreshExpirationMs;
+		// Same key derivation as signWith(SignatureAlgorithm, String), done once instead of per call
+		this.signingKey = new SecretKeySpec(TextCodec.BASE64.decode(jwtSecret),
+				SignatureAlgorithm.HS512.getJcaName());
+		this.verifiedTokens = verifiedTokenCacheSize > 0
+				? Caffeine.newBuilder()
+						.maximumSize(verifiedTokenCacheSize)
+						.expireAfter(new TokenExpiry())
+						.recordStats()
+						.build()
+				: null;
+	}
 
 	public String generateJwtToken(Authentication authentication) {
+		return generateAccessToken((UserDetailsImpl) authentication.getPrincipal());
+	}
 
-		UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
+	public String generateAccessToken(UserDetailsImpl userPrincipal) {
+		Date now = new Date();
+		return Jwts.builder()
+				.setId(UUID.randomUUID().toString())
+				.setSubject((userPrincipal.getUsername()))
+				.claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN)
+				.claim(USER_ID_CLAIM, userPrincipal.id())
+				.claim(EMAIL_CLAIM, userPrincipal.getEmail())
+				.claim(ROLES_CLAIM, userPrincipal.getAuthorities().stream()
+						.map(GrantedAuthority::getAuthority)
+						.toList())
+				.setIssuedAt(now)
+				.setExpiration(new Date(now.getTime() + jwtExpirationMs))
+				.signWith(SignatureAlgorithm.HS512, signingKey)
+				.compact();
+	}
 
+	public String generateRefreshToken(UserDetailsImpl userPrincipal) {
+		Date now = new Date();
 		return Jwts.builder()
+				.setId(UUID.randomUUID().toString())
 				.setSubject((userPrincipal.getUsername()))
-				.setIssuedAt(new Date())
-				.setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-				.signWith(SignatureAlgorithm.HS512, jwtSecret)
+				.claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN)
+				.claim(USER_ID_CLAIM, userPrincipal.id())
+				.setIssuedAt(now)
+				.setExpiration(new Date(now.getTime() + jwtRefreshExpirationMs))
+				.signWith(SignatureAlgorithm.HS512, signingKey)
 				.compact();
 	}
 
+	/**
+	 * Verifies a refresh token. Access tokens are rejected, as are tokens issued before refresh
+	 * tokens existed.
+	 */
+	public Optional<Claims> parseRefreshClaims(String refreshToken) {
+		return parseClaims(refreshToken)
+				.filter(claims -> REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM)));
+	}
+
+	/**
+	 * Tells whether verified claims may authenticate a request. Refresh tokens may not; tokens
+	 * issued before token types were recorded are access tokens.
+	 */
+	public boolean isAccessToken(Claims claims) {
+		Object type = claims.get(TOKEN_TYPE_CLAIM);
+		return type == null || ACCESS_TOKEN.equals(type);
+	}
+
+	/**
+	 * Rebuilds the principal from the claims of an access token, without loading the user. Tokens
+	 * issued before the user id was recorded give an empty optional, and their user has to be
+	 * loaded instead.
+	 */
+	public Optional<UserDetailsImpl> getUserDetailsFromClaims(Claims claims) {
+		String userId = claims.get(USER_ID_CLAIM, String.class);
+		if (userId == null || !isAccessToken(claims)) {
+			return Optional.empty();
+		}
+		List<?> roles = claims.get(ROLES_CLAIM, List.class);
+		List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+				.<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.toString()))
+				.toList();
+		return Optional.of(new UserDetailsImpl(userId, claims.getSubject(),
+				claims.get(EMAIL_CLAIM, String.class), null, authorities));
+	}
+
+	public String getUserIdFromClaims(Claims claims) {
+		return claims.get(USER_ID_CLAIM, String.class);
+	}
+
+	/**
+	 * Verifies the token and returns its claims in a single parse, or an empty optional when the
+	 * token is invalid. Tokens verified recently are answered from a cache without repeating the
+	 * signature check.
+	 */
+	public Optional<Claims> parseVerifiedClaims(String authToken) {
+		if (verifiedTokens == null) {
+			return parseClaims(authToken);
+		}
+
+		String digest = digest(authToken);
+		Claims cached = verifiedTokens.getIfPresent(digest);
+		if (cached != null) {
+			return Optional.of(cached);
+		}
+		Optional<Claims> claims = parseClaims(authToken);
+		claims.ifPresent(verified -> verifiedTokens.put(digest, verified));
+		return claims;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		if (verifiedTokens != null) {
+			CaffeineCacheMetrics.monitor(registry, verifiedTokens, "verifiedTokens");
+		}
+	}
+
 	public String getUserNameFromJwtToken(String token) {
-		return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
+		return Jwts.parser().setSigningKey(signingKey).parseClaimsJws(token).getBody().getSubject();
 	}
 
 	public boolean validateJwtToken(String authToken) {
+		return parseClaims(authToken).isPresent();
+	}
+
+	private Optional<Claims> parseClaims(String authToken) {
 		try {
-			Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(authToken);
-			return true;
+			return Optional.of(Jwts.parser().setSigningKey(signingKey).parseClaimsJws(authToken).getBody());
 		} catch (SignatureException e) {
 			logger.error("Invalid JWT signature: {}", e.getMessage());
 		} catch (MalformedJwtException e) {
@@ -53,6 +206,39 @@ public class JwtUtils {
 			logger.error("JWT claims string is empty: {}", e.getMessage());
 		}
 
-		return false;
+		return Optional.empty();
+	}
+
+	private static String digest(String token) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256")
+					.digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private class TokenExpiry implements Expiry<String, Claims> {
+
+		@Override
+		public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+			long expiresInMs = claims.getExpiration() == null
+					? jwtExpirationMs
+					: claims.getExpiration().getTime() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresInMs));
+		}
+
+		@Override
+		public long expireAfterUpdate(String digest, Claims claims, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
+
+		@Override
+		public long expireAfterRead(String digest, Claims claims, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
 	}
 }
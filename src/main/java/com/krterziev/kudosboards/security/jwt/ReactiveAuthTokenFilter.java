@@ -0,0 +1,99 @@
+package com.krterziev.kudosboards.security.jwt;
+
+import com.krterziev.kudosboards.models.EPrincipalSource;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux counterpart of {@link AuthTokenFilter}. A missing or invalid token leaves the exchange
+ * unauthenticated instead of rejecting it, so that the authorization rules decide the outcome.
+ */
+public class ReactiveAuthTokenFilter implements WebFilter {
+
+  private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthTokenFilter.class);
+
+  private final JwtUtils jwtUtils;
+  private final ReactiveUserDetailsService userDetailsService;
+  private final TokenRevocations tokenRevocations;
+  private final EPrincipalSource principalSource;
+
+  public ReactiveAuthTokenFilter(final JwtUtils jwtUtils,
+      final ReactiveUserDetailsService userDetailsService,
+      final TokenRevocations tokenRevocations, final EPrincipalSource principalSource) {
+    this.jwtUtils = jwtUtils;
+    this.userDetailsService = userDetailsService;
+    this.tokenRevocations = tokenRevocations;
+    this.principalSource = principalSource;
+  }
+
+  @Override
+  public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+    return authenticate(exchange.getRequest())
+        .map(authentication -> chain.filter(exchange)
+            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication)))
+        .defaultIfEmpty(Mono.defer(() -> chain.filter(exchange)))
+        .flatMap(filtered -> filtered);
+  }
+
+  private Mono<Authentication> authenticate(final ServerHttpRequest request) {
+    final String jwt = parseJwt(request);
+    if (jwt == null) {
+      return Mono.empty();
+    }
+    return Mono.justOrEmpty(jwtUtils.parseVerifiedClaims(jwt))
+        .filter(jwtUtils::isAccessToken)
+        .filterWhen(this::isNotRevoked)
+        .flatMap(this::findUserDetails)
+        .<Authentication>map(userDetails -> new UsernamePasswordAuthenticationToken(userDetails,
+            null, userDetails.getAuthorities()))
+        .onErrorResume(e -> {
+          logger.error("Cannot set user authentication: {}", e.getMessage());
+          return Mono.empty();
+        });
+  }
+
+  /**
+   * Checks the deny-list on the event loop when the Bloom filter rules the token out, which is
+   * almost always, and otherwise off it, since the check may then query Mongo.
+   */
+  private Mono<Boolean> isNotRevoked(final Claims claims) {
+    if (!tokenRevocations.mightBeRevoked(claims.getId())) {
+      return Mono.just(true);
+    }
+    return Mono.fromCallable(() -> !tokenRevocations.isRevoked(claims.getId()))
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  private Mono<UserDetails> findUserDetails(final Claims claims) {
+    final Optional<UserDetailsImpl> fromClaims = principalSource == EPrincipalSource.CLAIMS
+        ? jwtUtils.getUserDetailsFromClaims(claims) : Optional.empty();
+    return fromClaims.<Mono<UserDetails>>map(Mono::just)
+        .orElseGet(() -> userDetailsService.findByUsername(claims.getSubject()));
+  }
+
+  private String parseJwt(final ServerHttpRequest request) {
+    final String headerAuth = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+    if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+      return headerAuth.substring(7);
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,264 @@
+package com.krterziev.kudosboards.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.krterziev.kudosboards.models.RevokedToken;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deny-list of revoked JWTs, keyed by their {@code jti}.
+ *
+ * <p>Revocations are stored in the {@code revoked_tokens} collection, whose TTL index drops them
+ * once the token would have expired anyway. Every instance mirrors the collection in memory so
+ * that checking a token does not touch Mongo:
+ *
+ * <ul>
+ *   <li>a Bloom filter of every revoked token id answers "not revoked" for almost every token;
+ *   <li>an exact set of the most recent revocations, at most {@code exactSetMaximumSize}, answers
+ *   "revoked" for the tokens the filter matches;
+ *   <li>only a token the filter matches but the set does not, an older revocation or a false
+ *   positive, is looked up in Mongo, and the answer is remembered.
+ * </ul>
+ *
+ * <p>Revocations made by other instances are picked up every {@code refreshMillis} by reading
+ * those revoked since the last refresh, so they take effect everywhere within about that long.
+ * The filter is rebuilt from the collection every {@code rebuildMinutes}, dropping expired
+ * revocations, and sooner if it holds more revocations than it was sized for.
+ */
+@Component
+public class TokenRevocations implements InitializingBean, DisposableBean, MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(TokenRevocations.class);
+
+  /**
+   * How far back each refresh reads before the latest revocation seen, so that revocations
+   * stamped by a node whose clock runs slightly behind are not skipped.
+   */
+  private static final Duration CLOCK_SKEW = Duration.ofSeconds(5);
+
+  private final MongoTemplate mongoTemplate;
+  private final int expectedTokens;
+  private final double falsePositiveRate;
+  private final long refreshMillis;
+  private final Duration rebuildInterval;
+  private final Cache<String, Instant> revoked;
+  private final Cache<String, Boolean> confirmedValid;
+  private final LongAdder lookups = new LongAdder();
+  private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(
+      new CustomizableThreadFactory("token-revocations-"));
+
+  private volatile BloomFilter filter;
+  private Instant lastRevokedAt;
+  private Instant lastRebuild;
+
+  @Autowired
+  public TokenRevocations(final MongoTemplate mongoTemplate,
+      @Value("${krterziev.app.revocations.expectedTokens:100000}") final int expectedTokens,
+      @Value("${krterziev.app.revocations.falsePositiveRate:0.01}") final double falsePositiveRate,
+      @Value("${krterziev.app.revocations.exactSetMaximumSize:10000}") final long exactSetSize,
+      @Value("${krterziev.app.revocations.refreshMillis:1000}") final long refreshMillis,
+      @Value("${krterziev.app.revocations.rebuildMinutes:60}") final long rebuildMinutes) {
+    this.mongoTemplate = mongoTemplate;
+    this.expectedTokens = expectedTokens;
+    this.falsePositiveRate = falsePositiveRate;
+    this.refreshMillis = refreshMillis;
+    this.rebuildInterval = Duration.ofMinutes(rebuildMinutes);
+    this.revoked = Caffeine.newBuilder()
+        .maximumSize(exactSetSize)
+        .expireAfter(new RevocationExpiry())
+        .build();
+    this.confirmedValid = Caffeine.newBuilder()
+        .maximumSize(exactSetSize)
+        .expireAfterWrite(rebuildInterval)
+        .build();
+    this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    rebuild();
+    refresher.scheduleWithFixedDelay(this::refresh, refreshMillis, refreshMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() {
+    refresher.shutdownNow();
+  }
+
+  /**
+   * Tells whether the token may have been revoked, without touching Mongo. Tokens for which
+   * this is false are certainly not revoked.
+   */
+  public boolean mightBeRevoked(final String tokenId) {
+    return tokenId != null && filter.mightContain(tokenId);
+  }
+
+  /**
+   * Tells whether the token has been revoked. Tokens without an id, issued before ids were
+   * recorded, cannot be revoked.
+   */
+  public boolean isRevoked(final String tokenId) {
+    if (!mightBeRevoked(tokenId)) {
+      return false;
+    }
+    if (revoked.getIfPresent(tokenId) != null) {
+      return true;
+    }
+    if (confirmedValid.getIfPresent(tokenId) != null) {
+      return false;
+    }
+
+    lookups.increment();
+    final RevokedToken token = mongoTemplate.findById(tokenId, RevokedToken.class);
+    if (token == null) {
+      confirmedValid.put(tokenId, Boolean.TRUE);
+      return false;
+    }
+    remember(token.getId(), token.getExpiresAt());
+    return true;
+  }
+
+  /**
+   * Revokes the verified token with the given claims. Returns false if the token has no id and
+   * so cannot be revoked.
+   */
+  public boolean revoke(final Claims claims) {
+    if (claims.getId() == null) {
+      return false;
+    }
+    final Instant expiresAt = claims.getExpiration() == null ? null
+        : claims.getExpiration().toInstant();
+    mongoTemplate.save(new RevokedToken(claims.getId(), claims.getSubject(), expiresAt,
+        Instant.now()));
+    remember(claims.getId(), expiresAt);
+    return true;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("kudos.auth.revocations", this, revocations -> revocations.filter.size())
+        .description("Revoked tokens held in the Bloom filter")
+        .register(registry);
+    FunctionCounter.builder("kudos.auth.revocations.lookups", lookups, LongAdder::sum)
+        .description("Token checks that had to look the token up in Mongo")
+        .register(registry);
+  }
+
+  private void refresh() {
+    try {
+      if (filter.isSaturated() || Instant.now().isAfter(lastRebuild.plus(rebuildInterval))) {
+        rebuild();
+      } else {
+        for (final RevokedToken token : loadSince(lastRevokedAt)) {
+          // Each refresh rereads the last few seconds; count every revocation in the filter once.
+          if (revoked.getIfPresent(token.getId()) == null) {
+            remember(token.getId(), token.getExpiresAt());
+          }
+        }
+      }
+    } catch (RuntimeException ex) {
+      logger.warn("Cannot refresh revoked tokens", ex);
+    }
+  }
+
+  /**
+   * Replaces the filter with one holding every revocation that has not expired. Revocations this
+   * instance made while the filter was built are still in the exact set and are carried over.
+   */
+  private void rebuild() {
+    final Instant now = Instant.now();
+    final List<RevokedToken> tokens = mongoTemplate.find(unexpired(now), RevokedToken.class);
+    final BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, tokens.size() * 2),
+        falsePositiveRate);
+    tokens.forEach(token -> rebuilt.add(token.getId()));
+    filter = rebuilt;
+    revoked.asMap().keySet().forEach(rebuilt::add);
+    confirmedValid.invalidateAll();
+    tokens.forEach(this::advance);
+    lastRebuild = now;
+    logger.debug("Loaded {} revoked tokens", tokens.size());
+  }
+
+  private List<RevokedToken> loadSince(final Instant since) {
+    final Query query = since == null ? new Query()
+        : Query.query(Criteria.where("revokedAt").gte(since.minus(CLOCK_SKEW)));
+    final List<RevokedToken> tokens = mongoTemplate.find(
+        query.with(Sort.by(Sort.Direction.ASC, "revokedAt")), RevokedToken.class);
+    tokens.forEach(this::advance);
+    return tokens;
+  }
+
+  private static Query unexpired(final Instant now) {
+    final Query query = Query.query(new Criteria().orOperator(
+        Criteria.where("expiresAt").gt(now), Criteria.where("expiresAt").is(null)));
+    query.fields().include("expiresAt", "revokedAt");
+    return query;
+  }
+
+  private void advance(final RevokedToken token) {
+    if (token.getRevokedAt() != null
+        && (lastRevokedAt == null || token.getRevokedAt().isAfter(lastRevokedAt))) {
+      lastRevokedAt = token.getRevokedAt();
+    }
+  }
+
+  /**
+   * Adds a revocation to the exact set before the filter, so that a rebuild running meanwhile
+   * either sees it in the set or has already swapped in the filter it is added to.
+   */
+  private void remember(final String tokenId, final Instant expiresAt) {
+    revoked.put(tokenId, expiresAt == null ? Instant.MAX : expiresAt);
+    confirmedValid.invalidate(tokenId);
+    filter.add(tokenId);
+  }
+
+  private static class RevocationExpiry implements Expiry<String, Instant> {
+
+    @Override
+    public long expireAfterCreate(final String tokenId, final Instant expiresAt,
+        final long currentTime) {
+      if (expiresAt.equals(Instant.MAX)) {
+        return Long.MAX_VALUE;
+      }
+      return TimeUnit.MILLISECONDS.toNanos(
+          Math.max(0, expiresAt.toEpochMilli() - System.currentTimeMillis()));
+    }
+
+    @Override
+    public long expireAfterUpdate(final String tokenId, final Instant expiresAt,
+        final long currentTime, final long currentDuration) {
+      return expireAfterCreate(tokenId, expiresAt, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(final String tokenId, final Instant expiresAt,
+        final long currentTime, final long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
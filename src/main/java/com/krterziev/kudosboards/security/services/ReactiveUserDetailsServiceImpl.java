@@ -0,0 +1,50 @@
+package com.krterziev.kudosboards.security.services;
+
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.repository.ReactiveReferenceResolver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveUserDetailsServiceImpl implements ReactiveUserDetailsService,
+    ReactiveUserDetailsPasswordService {
+
+  private final ReactiveReferenceResolver referenceResolver;
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  @Autowired
+  public ReactiveUserDetailsServiceImpl(final ReactiveReferenceResolver referenceResolver,
+      final ReactiveMongoTemplate mongoTemplate) {
+    this.referenceResolver = referenceResolver;
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public Mono<UserDetails> findByUsername(final String username) {
+    return referenceResolver.findUser(Query.query(Criteria.where("username").is(username)))
+        .map(UserDetailsImpl::build);
+  }
+
+  /**
+   * Stores a password rehashed with the current work factor after a successful sign-in.
+   */
+  @Override
+  public Mono<UserDetails> updatePassword(final UserDetails user, final String newPassword) {
+    final UserDetailsImpl userDetails = (UserDetailsImpl) user;
+    return mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(userDetails.id())),
+            Update.update("password", newPassword), User.class)
+        .thenReturn(new UserDetailsImpl(userDetails.id(), userDetails.getUsername(),
+            userDetails.getEmail(), newPassword, userDetails.getAuthorities()));
+  }
+}
@@ -0,0 +1,11 @@
+package com.krterziev.kudosboards.security.services;
+
+import com.krterziev.kudosboards.models.User;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserService {
+  Mono<User> getCurrentUser();
+  Mono<User> getCurrentAuthUser();
+
+  Mono<Boolean> userExists(String userId);
+}
@@ -0,0 +1,62 @@
+package com.krterziev.kudosboards.security.services;
+
+import com.krterziev.kudosboards.exceptions.UserAuthenticationException;
+import com.krterziev.kudosboards.models.User;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the current user from the reactive security context. The principal already carries the
+ * user's id, username and email, so no lookup is made; callers that need roles or the password
+ * should go through {@link ReactiveUserDetailsServiceImpl}.
+ */
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+
+  private final ReactiveMongoTemplate mongoTemplate;
+
+  @Autowired
+  public ReactiveUserServiceImpl(final ReactiveMongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public Mono<User> getCurrentUser() {
+    return ReactiveSecurityContextHolder.getContext()
+        .mapNotNull(SecurityContext::getAuthentication)
+        .mapNotNull(Authentication::getPrincipal)
+        .filter(UserDetailsImpl.class::isInstance)
+        .cast(UserDetailsImpl.class)
+        .map(ReactiveUserServiceImpl::toUser);
+  }
+
+  @Override
+  public Mono<User> getCurrentAuthUser() {
+    return getCurrentUser().switchIfEmpty(Mono.error(UserAuthenticationException::new));
+  }
+
+  @Override
+  public Mono<Boolean> userExists(final String userId) {
+    if (!ObjectId.isValid(userId)) {
+      return Mono.just(false);
+    }
+    return mongoTemplate.exists(Query.query(Criteria.where("id").is(userId)), User.class);
+  }
+
+  private static User toUser(final UserDetailsImpl userDetails) {
+    final User user = new User(userDetails.getUsername(), userDetails.getEmail(), null);
+    user.setId(userDetails.id());
+    return user;
+  }
+}
@@ -0,0 +1,54 @@
+package com.krterziev.kudosboards.security.services;
+
+import com.krterziev.kudosboards.models.ERole;
+import com.krterziev.kudosboards.models.Role;
+import com.krterziev.kudosboards.repository.RoleRepository;
+import java.util.EnumMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+/**
+ * The role documents, one per {@link ERole}, loaded once at startup so that users can be given
+ * roles without looking them up.
+ *
+ * <p>Roles missing from the {@code roles} collection are created. Role documents never change,
+ * so the registry is not refreshed afterwards.
+ */
+@Component
+@DependsOn("indexBootstrapper")
+public class RoleRegistry {
+
+  private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+  private final Map<ERole, Role> roles = new EnumMap<>(ERole.class);
+
+  @Autowired
+  public RoleRegistry(final RoleRepository roleRepository) {
+    roleRepository.findAll().forEach(role -> roles.put(role.getName(), role));
+    for (final ERole name : ERole.values()) {
+      if (!roles.containsKey(name)) {
+        roles.put(name, create(roleRepository, name));
+      }
+    }
+  }
+
+  public Role get(final ERole name) {
+    return roles.get(name);
+  }
+
+  private static Role create(final RoleRepository roleRepository, final ERole name) {
+    try {
+      final Role role = roleRepository.insert(new Role(name));
+      logger.info("Created role {}", name);
+      return role;
+    } catch (DuplicateKeyException ex) {
+      // Another instance created it meanwhile.
+      return roleRepository.findByName(name).orElseThrow(() -> ex);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.krterziev.kudosboards.security.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, expiring cache of users and their {@link UserDetailsImpl}, keyed by username.
+ *
+ * <p>Sign-ins, and requests whose token predates the claims the principal is now built from,
+ * need the principal and sometimes the {@link User} as well, so both are loaded together on a
+ * miss and served from memory afterwards. Entries are evicted
+ * after {@code krterziev.app.userCache.ttlSeconds} and must be invalidated whenever a user's
+ * document changes, for example on signup or when their roles change.
+ *
+ * <p>Misses are loaded outside the cache rather than through {@code Cache#get(key, loader)},
+ * which runs the loader under a map lock and would pin a virtual thread for the whole Mongo
+ * round trip. Two concurrent misses for the same user may therefore both query Mongo.
+ */
+@Component
+public class UserCache implements MeterBinder {
+
+  private final UserRepository userRepository;
+  private final Cache<String, CachedUser> cache;
+
+  @Autowired
+  public UserCache(final UserRepository userRepository,
+      @Value("${krterziev.app.userCache.maximumSize:10000}") final long maximumSize,
+      @Value("${krterziev.app.userCache.ttlSeconds:300}") final long ttlSeconds) {
+    this.userRepository = userRepository;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+        .recordStats()
+        .build();
+  }
+
+  public Optional<User> getUser(final String username) {
+    return find(username).map(CachedUser::user);
+  }
+
+  public Optional<UserDetailsImpl> getUserDetails(final String username) {
+    return find(username).map(CachedUser::userDetails);
+  }
+
+  public void invalidate(final String username) {
+    cache.invalidate(username);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, "users");
+  }
+
+  private Optional<CachedUser> find(final String username) {
+    final CachedUser cached = cache.getIfPresent(username);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+
+    final Optional<CachedUser> loaded = userRepository.findByUsername(username)
+        .map(user -> new CachedUser(user, UserDetailsImpl.build(user)));
+    loaded.ifPresent(user -> cache.put(username, user));
+    return loaded;
+  }
+
+  private record CachedUser(User user, UserDetailsImpl userDetails) {
+
+  }
+}
@@ -1,27 +1,44 @@
 package com.krterziev.kudosboards.security.services;
 
+import com.krterziev.kudosboards.models.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.krterziev.kudosboards.models.User;
-import com.krterziev.kudosboards.repository.UserRepository;
-
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 	@Autowired
-	UserRepository userRepository;
+	UserCache userCache;
+
+	@Autowired
+	MongoTemplate mongoTemplate;
 
 	@Override
 	@Transactional
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		User user = userRepository.findByUsername(username)
+		return userCache.getUserDetails(username)
 				.orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+	}
 
-		return UserDetailsImpl.build(user);
+	/**
+	 * Stores a password rehashed with the current work factor after a successful sign-in.
+	 */
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		UserDetailsImpl userDetails = (UserDetailsImpl) user;
+		mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(userDetails.id())),
+				Update.update("password", newPassword), User.class);
+		userCache.invalidate(userDetails.getUsername());
+		return new UserDetailsImpl(userDetails.id(), userDetails.getUsername(), userDetails.getEmail(),
+				newPassword, userDetails.getAuthorities());
 	}
 
 }
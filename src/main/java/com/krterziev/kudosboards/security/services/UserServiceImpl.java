@@ -5,10 +5,15 @@ import com.krterziev.kudosboards.models.User;
 import com.krterziev.kudosboards.repository.UserRepository;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+/**
+ * Reads the current user from the security context. The principal already carries the user's
+ * id, username and email, so no lookup is made; like the principal, the returned user has no
+ * roles or password.
+ */
 @Service
 public class UserServiceImpl implements UserService {
 
@@ -21,13 +26,12 @@ public class UserServiceImpl implements UserService {
 
   @Override
   public Optional<User> getCurrentUser() {
-    final String username;
-    try {
-      username = getUsername();
-    } catch (final UserAuthenticationException ex) {
+    final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null
+        || !(authentication.getPrincipal() instanceof UserDetailsImpl userDetails)) {
       return Optional.empty();
     }
-    return userRepository.findByUsername(username);
+    return Optional.of(toUser(userDetails));
   }
 
   @Override
@@ -37,18 +41,12 @@ public class UserServiceImpl implements UserService {
 
   @Override
   public User getCurrentAuthUser() throws UserAuthenticationException {
-    final String username = getUsername();
-    return userRepository.findByUsername(username).orElseThrow(UserAuthenticationException::new);
+    return getCurrentUser().orElseThrow(UserAuthenticationException::new);
   }
 
-  private static String getUsername() throws UserAuthenticationException {
-    try {
-      final UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext()
-          .getAuthentication().getPrincipal();
-      return userDetails.getUsername();
-    } catch (final Exception ex) {
-      throw new UserAuthenticationException(ex);
-    }
+  private static User toUser(final UserDetailsImpl userDetails) {
+    final User user = new User(userDetails.getUsername(), userDetails.getEmail(), null);
+    user.setId(userDetails.id());
+    return user;
   }
-
 }
@@ -0,0 +1,202 @@
+package com.krterziev.kudosboards.services;
+
+import static com.krterziev.kudosboards.repository.References.referencedIds;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether a user is a member of a board from the indexed {@code boards.memberIds}
+ * array, without resolving the board's {@code users} references.
+ *
+ * <p>Decisions are cached per user and board, at most
+ * {@code krterziev.app.boardMembers.cacheSize} of them, for
+ * {@code krterziev.app.boardMembers.cacheTtlSeconds}. Members are never removed, so a cached
+ * "member" never goes stale; {@link #membersAdded} drops cached "not a member" decisions on this
+ * instance, and other instances see the new members once their decisions expire.
+ *
+ * <p>Boards written before member ids were recorded have no {@code memberIds}, and their
+ * {@code users} references are checked instead until {@link #backfillAll()} records them.
+ * Writers must only add member ids to boards that already have the array, so that a partial
+ * array never hides the members a legacy board already has.
+ */
+@Component
+public class BoardMembers implements MeterBinder {
+
+  private static final String BOARDS_COLLECTION = "boards";
+  private static final String MEMBER_IDS = "memberIds";
+  private static final int BACKFILL_BATCH_SIZE = 100;
+
+  private final MongoTemplate mongoTemplate;
+  private final Cache<Membership, Boolean> decisions;
+
+  @Autowired
+  public BoardMembers(final MongoTemplate mongoTemplate,
+      @Value("${krterziev.app.boardMembers.cacheSize:100000}") final long cacheSize,
+      @Value("${krterziev.app.boardMembers.cacheTtlSeconds:60}") final long cacheTtlSeconds) {
+    this.mongoTemplate = mongoTemplate;
+    this.decisions = Caffeine.newBuilder()
+        .maximumSize(cacheSize)
+        .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Tells whether the user is a member of the board, with at most one lookup by board id. Like
+   * {@code UserCache}, misses are loaded outside the cache so that no lock is held across the
+   * round trip.
+   */
+  public boolean isMember(final String userId, final String boardId) {
+    if (userId == null || !ObjectId.isValid(boardId)) {
+      return false;
+    }
+    final Membership membership = new Membership(userId, boardId);
+    final Boolean cached = decisions.getIfPresent(membership);
+    if (cached != null) {
+      return cached;
+    }
+
+    final boolean member = mongoTemplate.exists(membershipQuery(userId, boardId),
+        BOARDS_COLLECTION);
+    decisions.put(membership, member);
+    return member;
+  }
+
+  /**
+   * Loads the ids of a board's members with one projection of its member ids and references.
+   * The references are only read if the board has no member ids yet. Empty if there is no such
+   * board.
+   */
+  public Optional<Members> findMembers(final String boardId) {
+    if (!ObjectId.isValid(boardId)) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(mongoTemplate.findOne(membersQuery(boardId), Document.class,
+            BOARDS_COLLECTION))
+        .map(BoardMembers::toMembers);
+  }
+
+  /**
+   * Drops the cached decisions about users the service has just added to the board.
+   */
+  public void membersAdded(final String boardId, final Collection<String> userIds) {
+    decisions.invalidateAll(userIds.stream()
+        .map(userId -> new Membership(userId, boardId))
+        .toList());
+  }
+
+  /**
+   * Records the member ids of every board that has none yet, a batch at a time. A board whose
+   * members change while it is read is skipped and keeps being checked by its references.
+   * Returns the number of boards updated.
+   */
+  public long backfillAll() {
+    long backfilled = 0;
+    ObjectId lastBoardId = null;
+    List<Document> batch;
+    do {
+      final Criteria criteria = Criteria.where(MEMBER_IDS).exists(false);
+      if (lastBoardId != null) {
+        criteria.and("_id").gt(lastBoardId);
+      }
+      final Query query = Query.query(criteria)
+          .with(Sort.by(Sort.Direction.ASC, "_id"))
+          .limit(BACKFILL_BATCH_SIZE);
+      query.fields().include("users");
+      batch = mongoTemplate.find(query, Document.class, BOARDS_COLLECTION);
+      for (final Document board : batch) {
+        lastBoardId = board.getObjectId("_id");
+        backfilled += backfill(board);
+      }
+    } while (batch.size() == BACKFILL_BATCH_SIZE);
+    return backfilled;
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, decisions, "boardMembers");
+  }
+
+  private long backfill(final Document board) {
+    final List<String> memberIds = referencedIds(board, "users").stream()
+        .map(Object::toString)
+        .distinct()
+        .toList();
+    // Matching the references as they were read keeps a member added meanwhile from being lost.
+    final Query unchanged = Query.query(Criteria.where("_id").is(board.getObjectId("_id"))
+        .and(MEMBER_IDS).exists(false)
+        .and("users").is(board.get("users")));
+    return mongoTemplate.updateFirst(unchanged, Update.update(MEMBER_IDS, memberIds),
+        BOARDS_COLLECTION).getModifiedCount();
+  }
+
+  /**
+   * Projects a board's member ids and references, for {@link #toMembers}. The reactive service
+   * runs it through the reactive driver. {@code boardId} must be a valid object id.
+   */
+  static Query membersQuery(final String boardId) {
+    final Query query = Query.query(Criteria.where("_id").is(new ObjectId(boardId)));
+    query.fields().include(MEMBER_IDS, "users");
+    return query;
+  }
+
+  /**
+   * Reads the members of a board loaded with {@link #membersQuery}, from its references only if
+   * it has no member ids yet.
+   */
+  static Members toMembers(final Document board) {
+    return board.containsKey(MEMBER_IDS)
+        ? new Members(new HashSet<>(board.getList(MEMBER_IDS, String.class)), true)
+        : new Members(referencedIds(board, "users").stream()
+            .map(Object::toString)
+            .collect(Collectors.toSet()), false);
+  }
+
+  /**
+   * Matches the board if the user is a member, by its member ids or, if it has none yet, by its
+   * references. {@code boardId} must be a valid object id.
+   */
+  static Query membershipQuery(final String userId, final String boardId) {
+    final Criteria byMemberId = Criteria.where(MEMBER_IDS).is(userId);
+    final Criteria member = ObjectId.isValid(userId)
+        ? new Criteria().orOperator(byMemberId, Criteria.where(MEMBER_IDS).exists(false)
+            .and("users.$id").is(new ObjectId(userId)))
+        : byMemberId;
+    final Query query = Query.query(new Criteria().andOperator(
+        Criteria.where("_id").is(new ObjectId(boardId)), member));
+    query.fields().include("_id");
+    return query;
+  }
+
+  /**
+   * The ids of a board's members, and whether they were read from its {@code memberIds}.
+   */
+  public record Members(Set<String> ids, boolean recorded) {
+
+  }
+
+  private record Membership(String userId, String boardId) {
+
+  }
+}
@@ -0,0 +1,16 @@
+package com.krterziev.kudosboards.services;
+
+import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
+import com.krterziev.kudosboards.models.Message;
+
+/**
+ * Adds a saved message to its board on behalf of
+ * {@link BoardService#addMessageToBoard(String, Message)}.
+ */
+public interface BoardMessageAppender {
+
+  /**
+   * Returns once the message has been written to the board.
+   */
+  void append(String boardId, Message message) throws ResourceNotFoundException;
+}
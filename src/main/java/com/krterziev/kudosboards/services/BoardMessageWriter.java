@@ -0,0 +1,55 @@
+package com.krterziev.kudosboards.services;
+
+import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.EMessageStorage;
+import com.krterziev.kudosboards.models.Message;
+import com.mongodb.DBRef;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds already saved messages to a board with one update, and then to its summary. In
+ * {@code EMBEDDED} storage their references are pushed onto {@code boards.messages}; in
+ * {@code BOARD_ID} storage they already belong to the board through their board id and only its
+ * version is bumped.
+ */
+@Component
+public class BoardMessageWriter {
+
+  private final MongoTemplate mongoTemplate;
+  private final EMessageStorage messageStorage;
+  private final BoardSummaries boardSummaries;
+
+  @Autowired
+  public BoardMessageWriter(final MongoTemplate mongoTemplate,
+      @Value("${krterziev.app.messageStorage:EMBEDDED}") final EMessageStorage messageStorage,
+      final BoardSummaries boardSummaries) {
+    this.mongoTemplate = mongoTemplate;
+    this.messageStorage = messageStorage;
+    this.boardSummaries = boardSummaries;
+  }
+
+  public void append(final String boardId, final List<Message> messages)
+      throws ResourceNotFoundException {
+    final Update update = BoardVersions.touch()
+        .set(BoardVersions.APPENDED_MESSAGE_IDS, messages.stream().map(Message::getId).toList());
+    if (messageStorage == EMessageStorage.EMBEDDED) {
+      update.push("messages").each(messages.stream()
+          .map(message -> new DBRef("messages", new ObjectId(message.getId())))
+          .toArray());
+    }
+    final Query boardQuery = Query.query(Criteria.where("id").is(boardId));
+    if (mongoTemplate.updateFirst(boardQuery, update, Board.class).getMatchedCount() != 1L) {
+      throw new ResourceNotFoundException("Board", boardId);
+    }
+    boardSummaries.messagesAdded(boardId, messages);
+  }
+}
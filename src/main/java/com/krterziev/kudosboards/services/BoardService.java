@@ -4,7 +4,13 @@ import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
 import com.krterziev.kudosboards.exceptions.UserAuthenticationException;
 import com.krterziev.kudosboards.exceptions.UserAuthorisationException;
 import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardOverview;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.BoardVersion;
+import com.krterziev.kudosboards.models.MemberAdditionResult;
 import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCursor;
+import com.krterziev.kudosboards.models.MessagePage;
 import com.krterziev.kudosboards.payload.request.CreateBoardRequest;
 import java.util.List;
 import java.util.Optional;
@@ -13,14 +19,46 @@ public interface BoardService {
 
   Optional<Board> getBoard(String id);
 
-  List<Board> getAllBoards();
+  Optional<BoardOverview> getBoardOverview(String id, int pageSize);
+
+  Optional<MessagePage> getBoardMessages(String boardId, MessageCursor after, int pageSize);
+
+  /**
+   * Reads only the version of a readable board, for answering conditional requests.
+   */
+  Optional<BoardVersion> getBoardVersion(String id);
+
+  boolean isBoardReadable(String id);
+
+  /**
+   * Tells whether a board exists, regardless of who may read it, with one lookup by id.
+   */
+  boolean boardExists(String id);
+
+  /**
+   * Lists the boards of the current user, or the public boards for anonymous users, from their
+   * summaries.
+   */
+  List<BoardSummary> getAllBoards();
 
   Board createBoard(CreateBoardRequest board) throws UserAuthenticationException;
 
   Message addMessageToBoard(String boardId, Message message) throws ResourceNotFoundException;
 
+  /**
+   * Adds newly created messages to a board with a single update.
+   */
+  void addMessagesToBoard(String boardId, List<Message> messages) throws ResourceNotFoundException;
+
   void deleteMessageFromBoard(String boardId, String messageId) throws ResourceNotFoundException;
 
   void addUserToBoard(String userId, String boardId)
       throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException;
+
+  /**
+   * Adds many users to a board at once, reporting for each id, in order, whether it was added,
+   * was already a member or was rejected. The current user must be a member of the board.
+   */
+  List<MemberAdditionResult> addUsersToBoard(String boardId, List<String> userIds)
+      throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException;
 }
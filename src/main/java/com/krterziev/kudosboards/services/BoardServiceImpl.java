@@ -2,22 +2,45 @@ package com.krterziev.kudosboards.services;
 
 import static com.krterziev.kudosboards.models.EBoardAccessLevel.PUBLIC;
 
+import com.krterziev.kudosboards.events.BoardEvent;
+import com.krterziev.kudosboards.events.BoardEventBus;
 import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
 import com.krterziev.kudosboards.exceptions.UserAuthenticationException;
 import com.krterziev.kudosboards.exceptions.UserAuthorisationException;
 import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardOverview;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.BoardVersion;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.EMemberAddition;
+import com.krterziev.kudosboards.models.EMessageStorage;
+import com.krterziev.kudosboards.models.MemberAdditionResult;
 import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCursor;
+import com.krterziev.kudosboards.models.MessagePage;
 import com.krterziev.kudosboards.models.User;
 import com.krterziev.kudosboards.payload.request.CreateBoardRequest;
+import com.krterziev.kudosboards.repository.BatchReferenceResolver;
 import com.krterziev.kudosboards.repository.BoardRepository;
 import com.krterziev.kudosboards.security.services.UserService;
 import com.mongodb.DBRef;
 import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.annotation.Timed;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -27,116 +50,331 @@ import org.springframework.stereotype.Service;
 @Service
 public class BoardServiceImpl implements BoardService {
 
+  private static final String BOARDS_COLLECTION = "boards";
+
   final BoardRepository boardRepository;
   final UserService userService;
   final MongoTemplate mongoTemplate;
+  final BatchReferenceResolver referenceResolver;
+  final EMessageStorage messageStorage;
+  final BoardEventBus eventBus;
+  final BoardMessageAppender messageAppender;
+  final BoardMessageWriter messageWriter;
+  final BoardSummaries boardSummaries;
+  final BoardMembers boardMembers;
 
   @Autowired
   public BoardServiceImpl(final BoardRepository boardRepository,
       final UserService userService,
-      final MongoTemplate mongoTemplate) {
+      final MongoTemplate mongoTemplate,
+      final BatchReferenceResolver referenceResolver,
+      @Value("${krterziev.app.messageStorage:EMBEDDED}") final EMessageStorage messageStorage,
+      final BoardEventBus eventBus,
+      final BoardMessageAppender messageAppender,
+      final BoardMessageWriter messageWriter,
+      final BoardSummaries boardSummaries,
+      final BoardMembers boardMembers) {
     this.boardRepository = boardRepository;
     this.userService = userService;
     this.mongoTemplate = mongoTemplate;
+    this.referenceResolver = referenceResolver;
+    this.messageStorage = messageStorage;
+    this.eventBus = eventBus;
+    this.messageAppender = messageAppender;
+    this.messageWriter = messageWriter;
+    this.boardSummaries = boardSummaries;
+    this.boardMembers = boardMembers;
   }
 
   @Override
+  @Timed("kudos.service")
   public Optional<Board> getBoard(String id) {
-    final Query query = new Query();
-    query.addCriteria(Criteria.where("id").is(id));
-    final Optional<Board> board = boardRepository.findById(id);
+    final Optional<Board> board = switch (messageStorage) {
+      case EMBEDDED -> referenceResolver.findBoards(Query.query(Criteria.where("id").is(id)))
+          .stream().findFirst();
+      case BOARD_ID -> findBoardWithIndexedMessages(id);
+    };
     if (board.isEmpty()) {
       return board;
     }
 
     return switch (board.get().getAccessLevel()) {
       case PUBLIC, LINK -> board;
-      case PRIVATE -> checkIfUserIsPartOfBoardUsers(board.get()) ? board : Optional.empty();
+      case PRIVATE -> isCurrentUserMember(id) ? board : Optional.empty();
     };
   }
 
   @Override
-  public List<Board> getAllBoards() {
-    Optional<User> user = userService.getCurrentUser();
+  @Timed("kudos.service")
+  public Optional<BoardOverview> getBoardOverview(final String id, final int pageSize) {
+    return findReadableBoard(id, "name").map(board -> {
+      final Criteria messages = boardMessagesCriteria(id);
+      return new BoardOverview(id, board.getString("name"),
+          mongoTemplate.count(Query.query(messages), Message.class),
+          findMessagePage(messages, null, pageSize));
+    });
+  }
 
-    final Query query = new Query();
-    if (user.isPresent()) {
-      query.addCriteria(Criteria.where("users.id").is(user.get().getId()));
-    } else {
-      query.addCriteria(Criteria.where("accessLevel").is(PUBLIC.toString()));
-    }
-    return mongoTemplate.find(query, Board.class);
+  @Override
+  @Timed("kudos.service")
+  public Optional<MessagePage> getBoardMessages(final String boardId, final MessageCursor after,
+      final int pageSize) {
+    return findReadableBoard(boardId, "name")
+        .map(board -> findMessagePage(boardMessagesCriteria(boardId), after, pageSize));
+  }
+
+  @Override
+  @Timed("kudos.service")
+  public Optional<BoardVersion> getBoardVersion(final String id) {
+    return findReadableBoard(id, BoardVersions.VERSION, BoardVersions.LAST_MODIFIED)
+        .map(board -> new BoardVersion(
+            board.get(BoardVersions.VERSION, (Number) 0).longValue(),
+            Optional.ofNullable(board.getDate(BoardVersions.LAST_MODIFIED))
+                .map(Date::toInstant).orElse(null)));
+  }
+
+  @Override
+  @Timed("kudos.service")
+  public boolean isBoardReadable(final String id) {
+    return findReadableBoard(id).isPresent();
+  }
+
+  @Override
+  @Timed("kudos.service")
+  public boolean boardExists(final String id) {
+    return ObjectId.isValid(id) && mongoTemplate.exists(
+        Query.query(Criteria.where("_id").is(new ObjectId(id))), BOARDS_COLLECTION);
+  }
+
+  @Override
+  @Timed("kudos.service")
+  public List<BoardSummary> getAllBoards() {
+    Optional<User> user = userService.getCurrentUser();
+    return user.isPresent() ? boardSummaries.findByMember(user.get().getId())
+        : boardSummaries.findByAccessLevel(PUBLIC);
   }
 
   @Override
+  @Timed("kudos.service")
   public Board createBoard(CreateBoardRequest boardRequest) throws UserAuthenticationException {
     final User user = userService.getCurrentAuthUser();
     final Board board = new Board(boardRequest.name(),
         Collections.emptyList(),
         Collections.singletonList(user),
         boardRequest.accessLevel());
-    return boardRepository.save(board);
+    board.setMemberIds(Collections.singletonList(user.getId()));
+    board.setLastModified(Instant.now());
+    final Board saved = boardRepository.save(board);
+    boardSummaries.boardCreated(saved);
+    eventBus.publish(BoardEvent.boardCreated(saved.getId()));
+    return saved;
   }
 
   @Override
+  @Timed("kudos.service")
   public Message addMessageToBoard(final String boardId, final Message message)
       throws ResourceNotFoundException {
-    final Query boardQuery = Query.query(Criteria.where("id").is(boardId));
-    final Update update = new Update().addToSet("messages", message);
-    final UpdateResult result = mongoTemplate.updateFirst(boardQuery, update, Board.class);
-    if (result.getMatchedCount() != 1L) {
-      throw new ResourceNotFoundException("Board", boardId);
-    }
+    messageAppender.append(boardId, message);
+    eventBus.publish(BoardEvent.messageAdded(boardId, message));
     return message;
   }
 
   @Override
+  @Timed("kudos.service")
+  public void addMessagesToBoard(final String boardId, final List<Message> messages)
+      throws ResourceNotFoundException {
+    messageWriter.append(boardId, messages);
+    messages.forEach(message -> eventBus.publish(BoardEvent.messageAdded(boardId, message)));
+  }
+
+  @Override
+  @Timed("kudos.service")
   public void deleteMessageFromBoard(String boardId, String messageId)
       throws ResourceNotFoundException {
     final Query boardQuery = Query.query(Criteria.where("id").is(boardId));
-    final Query messageQuery = Query.query(Criteria.where("$id").is(new ObjectId(messageId)));
-    final Update messageUpdate = new Update().pull("messages", messageQuery);
-    final UpdateResult result = mongoTemplate.updateFirst(boardQuery, messageUpdate, Board.class);
-    if (result.getMatchedCount() != 1L) {
-      throw new ResourceNotFoundException("Board", boardId);
-    }
-    if (result.getModifiedCount() != 1L) {
-      throw new ResourceNotFoundException("Message", messageId);
+    if (messageStorage == EMessageStorage.BOARD_ID) {
+      final Query boardMessageQuery = Query.query(
+          Criteria.where("id").is(messageId).and("boardId").is(boardId));
+      if (!mongoTemplate.exists(boardMessageQuery, Message.class)) {
+        throw mongoTemplate.exists(boardQuery, Board.class)
+            ? new ResourceNotFoundException("Message", messageId)
+            : new ResourceNotFoundException("Board", boardId);
+      }
+    } else {
+      // Matching on the reference, rather than checking the modified count, tells a missing
+      // message apart now that the version is bumped in the same update.
+      final ObjectId messageRef = new ObjectId(messageId);
+      final Query boardMessageQuery = Query.query(Criteria.where("_id").is(new ObjectId(boardId))
+          .and("messages.$id").is(messageRef));
+      final Update messageUpdate =
+          BoardVersions.touch(new Update().pull("messages", new Document("$id", messageRef)));
+      final UpdateResult result =
+          mongoTemplate.updateFirst(boardMessageQuery, messageUpdate, BOARDS_COLLECTION);
+      if (result.getMatchedCount() != 1L) {
+        throw mongoTemplate.exists(boardQuery, Board.class)
+            ? new ResourceNotFoundException("Message", messageId)
+            : new ResourceNotFoundException("Board", boardId);
+      }
     }
+    boardSummaries.messageRemoved(boardId, messageId);
+    eventBus.publish(BoardEvent.messageDeleted(boardId, messageId));
   }
 
   @Override
+  @Timed("kudos.service")
   public void addUserToBoard(String userId, String boardId)
       throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException {
-
-    final Optional<Board> board = boardRepository.findById(boardId);
-    final Optional<User> futureBoardUser = userService.getUser(userId);
-    if (board.isEmpty()) {
-      throw new ResourceNotFoundException("Board", boardId);
-    } else if (futureBoardUser.isEmpty()) {
+    final MemberAdditionResult result = addUsersToBoard(boardId, List.of(userId)).get(0);
+    if (result.outcome() == EMemberAddition.USER_NOT_FOUND
+        || result.outcome() == EMemberAddition.INVALID_ID) {
       throw new ResourceNotFoundException("User", userId);
     }
+  }
 
+  /**
+   * Reads the board's member ids and looks all the user ids up with one query, then adds the
+   * new members with a single update, whatever the number of ids.
+   */
+  @Override
+  @Timed("kudos.service")
+  public List<MemberAdditionResult> addUsersToBoard(final String boardId,
+      final List<String> userIds)
+      throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException {
+    final BoardMembers.Members members = boardMembers.findMembers(boardId)
+        .orElseThrow(() -> new ResourceNotFoundException("Board", boardId));
     final User user = userService.getCurrentAuthUser();
-    if (!checkIfUserIsPartOfBoardUsers(user, board.get())) {
+    if (!members.ids().contains(user.getId())) {
       throw new UserAuthorisationException();
     }
 
-    final Query boardQuery = Query.query(Criteria.where("id").is(new ObjectId(boardId)));
-    final Update update = new Update().push("users", new DBRef("users", new ObjectId(userId)));
-    mongoTemplate.updateFirst(boardQuery, update, Board.class);
+    final Set<String> existingUserIds = findExistingUserIds(userIds);
+    final Set<String> added = new LinkedHashSet<>();
+    final List<MemberAdditionResult> results = new ArrayList<>(userIds.size());
+    for (final String userId : userIds) {
+      final EMemberAddition outcome;
+      if (userId == null || !ObjectId.isValid(userId)) {
+        outcome = EMemberAddition.INVALID_ID;
+      } else if (!existingUserIds.contains(userId)) {
+        outcome = EMemberAddition.USER_NOT_FOUND;
+      } else if (members.ids().contains(userId) || !added.add(userId)) {
+        outcome = EMemberAddition.ALREADY_MEMBER;
+      } else {
+        outcome = EMemberAddition.ADDED;
+      }
+      results.add(new MemberAdditionResult(userId, outcome));
+    }
+    if (added.isEmpty()) {
+      return results;
+    }
+
+    // The first update misses a board whose member ids were backfilled since they were read;
+    // a board that neither update matches is gone.
+    if (addMembers(boardId, added, members.recorded()) == 0L
+        && addMembers(boardId, added, !members.recorded()) == 0L) {
+      throw new ResourceNotFoundException("Board", boardId);
+    }
+    boardMembers.membersAdded(boardId, added);
+    boardSummaries.membersAdded(boardId, added);
+    eventBus.publish(BoardEvent.boardUpdated(boardId));
+    return results;
+  }
+
+  private Set<String> findExistingUserIds(final List<String> userIds) {
+    final List<ObjectId> ids = userIds.stream()
+        .filter(userId -> userId != null && ObjectId.isValid(userId))
+        .distinct()
+        .map(ObjectId::new)
+        .toList();
+    if (ids.isEmpty()) {
+      return Collections.emptySet();
+    }
+    final Query query = Query.query(Criteria.where("id").in(ids));
+    query.fields().include("id");
+    return mongoTemplate.find(query, User.class).stream()
+        .map(User::getId)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Adds the users to the board's references, and to its member ids if it records them, with
+   * one {@code $addToSet}. The update only matches a board whose member ids are recorded or
+   * not as given, so that they are never added to a board that has none. Returns the number of
+   * boards matched.
+   */
+  private long addMembers(final String boardId, final Collection<String> userIds,
+      final boolean recorded) {
+    final Query boardQuery = Query.query(Criteria.where("_id").is(new ObjectId(boardId))
+        .and("memberIds").exists(recorded));
+    final Update update = BoardVersions.touch();
+    update.addToSet("users").each(userIds.stream()
+        .map(userId -> new DBRef("users", new ObjectId(userId)))
+        .toArray());
+    if (recorded) {
+      update.addToSet("memberIds").each(userIds.toArray());
+    }
+    return mongoTemplate.updateFirst(boardQuery, update, BOARDS_COLLECTION).getMatchedCount();
   }
 
-  private boolean checkIfUserIsPartOfBoardUsers(final User user, final Board board) {
-    return board.getUsers().stream()
-        .anyMatch(boardUser -> boardUser.getId().equals(user.getId()));
+  /**
+   * Loads the given fields of a board, if the current user may read it, with a single lookup by
+   * id. The access level needed for that check is always included; membership of private boards
+   * is checked by {@link BoardMembers}.
+   */
+  private Optional<Document> findReadableBoard(final String boardId, final String... fields) {
+    if (!ObjectId.isValid(boardId)) {
+      return Optional.empty();
+    }
+    final Query query = Query.query(Criteria.where("_id").is(new ObjectId(boardId)));
+    query.fields().include("accessLevel").include(fields);
+    final Document board = mongoTemplate.findOne(query, Document.class, BOARDS_COLLECTION);
+    if (board == null) {
+      return Optional.empty();
+    }
+
+    return switch (EBoardAccessLevel.valueOf(board.getString("accessLevel"))) {
+      case PUBLIC, LINK -> Optional.of(board);
+      case PRIVATE -> isCurrentUserMember(boardId) ? Optional.of(board) : Optional.empty();
+    };
   }
 
-  private boolean checkIfUserIsPartOfBoardUsers(final Board board) {
+  private boolean isCurrentUserMember(final String boardId) {
     final Optional<User> user = userService.getCurrentUser();
-    user.ifPresent(value -> checkIfUserIsPartOfBoardUsers(value, board));
-    return false;
+    return user.isPresent() && boardMembers.isMember(user.get().getId(), boardId);
   }
 
+  /**
+   * Loads a board without resolving its legacy {@code messages} references and attaches its
+   * messages with a single range query on the {@code boardId} index instead.
+   */
+  private Optional<Board> findBoardWithIndexedMessages(final String boardId) {
+    final Query boardQuery = Query.query(Criteria.where("id").is(boardId));
+    boardQuery.fields().exclude("messages");
+    final Optional<Board> board =
+        referenceResolver.findBoards(boardQuery).stream().findFirst();
+    if (board.isEmpty()) {
+      return board;
+    }
+
+    final Query messagesQuery = Query.query(Criteria.where("boardId").is(boardId))
+        .with(Sort.by(Sort.Direction.ASC, "id"));
+    board.get().setMessages(referenceResolver.findMessages(messagesQuery));
+    return board;
+  }
 
+  /**
+   * Selects a board's messages on the indexed {@code boardId} in both storage modes, so that a
+   * page costs the same however many messages the board has, instead of reading the board's
+   * whole {@code messages} array for every page.
+   */
+  private static Criteria boardMessagesCriteria(final String boardId) {
+    return Criteria.where("boardId").is(boardId);
+  }
+
+  private MessagePage findMessagePage(final Criteria criteria, final MessageCursor after,
+      final int pageSize) {
+    final int limit = MessagePages.limit(pageSize);
+    final List<Message> messages =
+        referenceResolver.findMessages(MessagePages.pageQuery(criteria, after, limit));
+    return MessagePages.toPage(messages, limit);
+  }
 }
@@ -0,0 +1,285 @@
+package com.krterziev.kudosboards.services;
+
+import static com.krterziev.kudosboards.repository.References.referencedIds;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.EMessageStorage;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessagePreview;
+import com.krterziev.kudosboards.models.User;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maintains the {@code board_summaries} read model from which boards are listed.
+ *
+ * <p>Each summary holds what a listing shows: the board's name, access level, member ids,
+ * message count, time of last activity and previews of its latest
+ * {@code krterziev.app.summaries.previewSize} messages, newest first. The services update it
+ * in place on every write, with a single update where they can; the reactive services do so on
+ * the bounded elastic scheduler and list boards from it through the reactive driver. Writes that bypass the services leave it stale, and
+ * {@link #rebuild(String)} or {@link #rebuildAll()} recompute it from the boards and messages
+ * collections.
+ */
+@Component
+public class BoardSummaries {
+
+  private static final String BOARDS_COLLECTION = "boards";
+  private static final String LATEST_MESSAGES = "latestMessages";
+  private static final int REBUILD_BATCH_SIZE = 100;
+
+  private final MongoTemplate mongoTemplate;
+  private final EMessageStorage messageStorage;
+  private final int previewSize;
+  private final int previewLength;
+
+  @Autowired
+  public BoardSummaries(final MongoTemplate mongoTemplate,
+      @Value("${krterziev.app.messageStorage:EMBEDDED}") final EMessageStorage messageStorage,
+      @Value("${krterziev.app.summaries.previewSize:3}") final int previewSize,
+      @Value("${krterziev.app.summaries.previewLength:200}") final int previewLength) {
+    this.mongoTemplate = mongoTemplate;
+    this.messageStorage = messageStorage;
+    this.previewSize = previewSize;
+    this.previewLength = previewLength;
+  }
+
+  public List<BoardSummary> findByMember(final String userId) {
+    return mongoTemplate.find(byMember(userId), BoardSummary.class);
+  }
+
+  public List<BoardSummary> findByAccessLevel(final EBoardAccessLevel accessLevel) {
+    return mongoTemplate.find(byAccessLevel(accessLevel), BoardSummary.class);
+  }
+
+  /**
+   * Selects the summaries of a user's boards, most recently active first. Shared with the
+   * reactive service, which runs it through the reactive driver.
+   */
+  static Query byMember(final String userId) {
+    return Query.query(Criteria.where("memberIds").is(userId))
+        .with(Sort.by(Sort.Direction.DESC, "lastActivity"));
+  }
+
+  static Query byAccessLevel(final EBoardAccessLevel accessLevel) {
+    return Query.query(Criteria.where("accessLevel").is(accessLevel))
+        .with(Sort.by(Sort.Direction.DESC, "lastActivity"));
+  }
+
+  public void boardCreated(final Board board) {
+    mongoTemplate.save(new BoardSummary(board.getId(), board.getName(), board.getAccessLevel(),
+        board.getUsers().stream().map(User::getId).toList(), 0, board.getLastModified(),
+        List.of()));
+  }
+
+  /**
+   * Counts newly added messages and puts them in front of the previews, newest first.
+   */
+  public void messagesAdded(final String boardId, final List<Message> messages) {
+    final List<MessagePreview> previews = new ArrayList<>(messages.size());
+    for (int i = messages.size() - 1; i >= 0; i--) {
+      previews.add(toPreview(messages.get(i)));
+    }
+    final Update update = new Update()
+        .inc("messageCount", messages.size())
+        .currentDate("lastActivity");
+    update.push(LATEST_MESSAGES).atPosition(0).slice(previewSize).each(previews.toArray());
+    mongoTemplate.updateFirst(byId(boardId), update, BoardSummary.class);
+  }
+
+  public void messageUpdated(final Message message) {
+    if (message.getBoardId() == null) {
+      return;
+    }
+    final MessagePreview preview = toPreview(message);
+    final Query previewed = Query.query(Criteria.where("id").is(message.getBoardId())
+        .and(LATEST_MESSAGES + ".messageId").is(message.getId()));
+    final Update update = new Update()
+        .set(LATEST_MESSAGES + ".$.text", preview.text())
+        .set(LATEST_MESSAGES + ".$.image", preview.image())
+        .set(LATEST_MESSAGES + ".$.lastUpdated", preview.lastUpdated())
+        .currentDate("lastActivity");
+    if (mongoTemplate.updateFirst(previewed, update, BoardSummary.class).getMatchedCount() == 0) {
+      touch(message.getBoardId());
+    }
+  }
+
+  /**
+   * Uncounts a message. If it was one of the previews, the previews are reloaded so that the
+   * next latest message takes its place.
+   */
+  public void messageRemoved(final String boardId, final String messageId) {
+    final Query previewed = Query.query(Criteria.where("id").is(boardId)
+        .and(LATEST_MESSAGES + ".messageId").is(messageId));
+    final Update update = new Update()
+        .inc("messageCount", -1)
+        .currentDate("lastActivity")
+        .pull(LATEST_MESSAGES, new Document("messageId", messageId));
+    if (mongoTemplate.updateFirst(previewed, update, BoardSummary.class).getMatchedCount() == 0) {
+      mongoTemplate.updateFirst(byId(boardId),
+          new Update().inc("messageCount", -1).currentDate("lastActivity"), BoardSummary.class);
+      return;
+    }
+    findBoard(boardId).ifPresent(board -> mongoTemplate.updateFirst(byId(boardId),
+        Update.update(LATEST_MESSAGES, findLatestPreviews(boardId, board)),
+        BoardSummary.class));
+  }
+
+  public void membersAdded(final String boardId, final Collection<String> userIds) {
+    final Update update = new Update().currentDate("lastActivity");
+    update.addToSet("memberIds").each(userIds.toArray());
+    mongoTemplate.updateFirst(byId(boardId), update, BoardSummary.class);
+  }
+
+  /**
+   * Tells whether there are fewer summaries than boards, as after upgrading to summaries, from
+   * the estimated sizes of both collections.
+   */
+  public boolean isIncomplete() {
+    return mongoTemplate.estimatedCount(BoardSummary.class)
+        < mongoTemplate.estimatedCount(BOARDS_COLLECTION);
+  }
+
+  /**
+   * Recomputes the summary of one board from the boards and messages collections.
+   */
+  public void rebuild(final String boardId) {
+    findBoard(boardId).ifPresentOrElse(board -> mongoTemplate.save(toSummary(board)),
+        () -> mongoTemplate.remove(byId(boardId), BoardSummary.class));
+  }
+
+  /**
+   * Recomputes every summary, walking the boards in {@code _id} order a batch at a time.
+   * Returns the number of summaries written.
+   */
+  public long rebuildAll() {
+    ObjectId lastBoardId = null;
+    long rebuilt = 0;
+    List<Document> batch;
+    do {
+      final Query query = lastBoardId == null ? new Query()
+          : Query.query(Criteria.where("_id").gt(lastBoardId));
+      includeSummaryFields(query);
+      query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(REBUILD_BATCH_SIZE);
+      batch = mongoTemplate.find(query, Document.class, BOARDS_COLLECTION);
+      for (final Document board : batch) {
+        lastBoardId = board.getObjectId("_id");
+        mongoTemplate.save(toSummary(board));
+        rebuilt++;
+      }
+    } while (batch.size() == REBUILD_BATCH_SIZE);
+    return rebuilt;
+  }
+
+  private BoardSummary toSummary(final Document board) {
+    final String boardId = board.getObjectId("_id").toHexString();
+    final long messageCount = switch (messageStorage) {
+      case EMBEDDED -> referencedIds(board, "messages").size();
+      case BOARD_ID -> mongoTemplate.count(Query.query(Criteria.where("boardId").is(boardId)),
+          Message.class);
+    };
+    final List<MessagePreview> previews = findLatestPreviews(boardId, board);
+    final Instant lastActivity = Optional.ofNullable(board.getDate("lastModified"))
+        .map(Date::toInstant)
+        .orElseGet(() -> previews.stream().map(MessagePreview::lastUpdated)
+            .max(Comparator.naturalOrder()).orElse(null));
+    return new BoardSummary(boardId, board.getString("name"),
+        EBoardAccessLevel.valueOf(board.getString("accessLevel")),
+        referencedIds(board, "users").stream().map(Object::toString).toList(),
+        messageCount, lastActivity, previews);
+  }
+
+  /**
+   * Loads the latest messages of a board. In {@code EMBEDDED} storage they are the last
+   * references of {@code boards.messages}; in {@code BOARD_ID} storage the messages with the
+   * board's id and the newest ids.
+   */
+  private List<MessagePreview> findLatestPreviews(final String boardId, final Document board) {
+    final Query query;
+    final List<Object> order;
+    if (messageStorage == EMessageStorage.EMBEDDED) {
+      final List<Object> messageIds = referencedIds(board, "messages");
+      order = new ArrayList<>(
+          messageIds.subList(Math.max(0, messageIds.size() - previewSize), messageIds.size()));
+      if (order.isEmpty()) {
+        return List.of();
+      }
+      query = Query.query(Criteria.where("id").in(order));
+    } else {
+      order = null;
+      query = Query.query(Criteria.where("boardId").is(boardId))
+          .with(Sort.by(Sort.Direction.DESC, "id"))
+          .limit(previewSize);
+    }
+    query.fields().include("text", "image", "imageId", "lastUpdated");
+    final List<Message> messages = mongoTemplate.find(query, Message.class);
+    if (order == null) {
+      return messages.stream().map(this::toPreview).toList();
+    }
+
+    final Map<String, Message> byId = messages.stream()
+        .collect(Collectors.toMap(Message::getId, Function.identity()));
+    final List<MessagePreview> previews = new ArrayList<>(order.size());
+    for (int i = order.size() - 1; i >= 0; i--) {
+      final Message message = byId.get(order.get(i).toString());
+      if (message != null) {
+        previews.add(toPreview(message));
+      }
+    }
+    return previews;
+  }
+
+  private MessagePreview toPreview(final Message message) {
+    final String text = message.getText();
+    final String image = message.getImageId() != null
+        ? MessageImages.imageUrl(message.getImageId()) : message.getImage();
+    return new MessagePreview(message.getId(),
+        text != null && text.length() > previewLength ? text.substring(0, previewLength) : text,
+        image, message.getLastUpdated());
+  }
+
+  private Optional<Document> findBoard(final String boardId) {
+    if (!ObjectId.isValid(boardId)) {
+      return Optional.empty();
+    }
+    final Query query = Query.query(Criteria.where("_id").is(new ObjectId(boardId)));
+    includeSummaryFields(query);
+    return Optional.ofNullable(mongoTemplate.findOne(query, Document.class, BOARDS_COLLECTION));
+  }
+
+  private void includeSummaryFields(final Query query) {
+    query.fields().include("name", "accessLevel", "users", "lastModified");
+    if (messageStorage == EMessageStorage.EMBEDDED) {
+      query.fields().include("messages");
+    }
+  }
+
+  private void touch(final String boardId) {
+    mongoTemplate.updateFirst(byId(boardId), new Update().currentDate("lastActivity"),
+        BoardSummary.class);
+  }
+
+  private static Query byId(final String boardId) {
+    return Query.query(Criteria.where("id").is(boardId));
+  }
+}
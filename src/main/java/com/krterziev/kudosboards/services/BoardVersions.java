@@ -0,0 +1,32 @@
+package com.krterziev.kudosboards.services;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Builds the updates that bump a board's {@code version} and {@code lastModified}. They are
+ * applied in the same update as the change where possible, and otherwise right after it, so
+ * that a board is never served under a version older than its content.
+ */
+final class BoardVersions {
+
+  static final String VERSION = "version";
+  static final String LAST_MODIFIED = "lastModified";
+
+  /**
+   * Set along with the version to the ids of the messages a write appended to or removed from
+   * the board, so that the change stream can report them from the board update.
+   */
+  static final String APPENDED_MESSAGE_IDS = "appendedMessageIds";
+  static final String REMOVED_MESSAGE_IDS = "removedMessageIds";
+
+  private BoardVersions() {
+  }
+
+  static Update touch() {
+    return touch(new Update());
+  }
+
+  static Update touch(final Update update) {
+    return update.inc(VERSION, 1).currentDate(LAST_MODIFIED);
+  }
+}
@@ -0,0 +1,243 @@
+package com.krterziev.kudosboards.services;
+
+import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
+import com.krterziev.kudosboards.models.Message;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces the messages added to the same board into one {@code $push $each}, so that a board
+ * receiving hundreds of messages at once takes a few updates instead of queueing one update per
+ * message on its document lock.
+ *
+ * <p>Appends are queued per board on a lock-free queue. The queue is written once it holds
+ * {@code krterziev.app.boards.appendBuffer.maxBatch} messages or when its oldest message has
+ * waited {@code windowMillis}, whichever comes first. While a write is in flight, further
+ * appends to the board queue up behind it and go out together in the next write.
+ *
+ * <p>An append returns only after the update carrying it has been acknowledged by Mongo, so a
+ * successful response is as durable as with direct writes; the cost is up to one window of
+ * added latency. If the board does not exist, every append in the write fails with
+ * {@link ResourceNotFoundException}. Writes run on virtual threads, one per flush, so boards
+ * waiting on Mongo do not hold up each other.
+ *
+ * <p>An append still queued after {@code timeoutMillis} is taken back and written directly by
+ * its caller; one already part of a write waits for that write. Either way the response tells
+ * whether the message was added, so a client never retries a message that was. Messages still
+ * queued at shutdown are written before the application stops, and appends made after it are
+ * written directly.
+ */
+@Component
+@ConditionalOnProperty(name = "krterziev.app.boards.appendBuffer.enabled", havingValue = "true")
+public class CoalescingBoardMessageAppender implements BoardMessageAppender, DisposableBean {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(CoalescingBoardMessageAppender.class);
+
+  private final BoardMessageWriter messageWriter;
+  private final long windowMillis;
+  private final int maxBatch;
+  private final long timeoutMillis;
+  private final ScheduledExecutorService timers = Executors.newSingleThreadScheduledExecutor(
+      new CustomizableThreadFactory("board-append-timer-"));
+  private final ExecutorService flushers = Executors.newThreadPerTaskExecutor(
+      Thread.ofVirtual().name("board-append-", 0).factory());
+  private final DistributionSummary batchSizes;
+  private final Map<String, BoardQueue> queues = new ConcurrentHashMap<>();
+  private volatile boolean stopped;
+
+  @Autowired
+  public CoalescingBoardMessageAppender(final BoardMessageWriter messageWriter,
+      final MeterRegistry meterRegistry,
+      @Value("${krterziev.app.boards.appendBuffer.windowMillis:5}") final long windowMillis,
+      @Value("${krterziev.app.boards.appendBuffer.maxBatch:64}") final int maxBatch,
+      @Value("${krterziev.app.boards.appendBuffer.timeoutMillis:10000}")
+      final long timeoutMillis) {
+    this.messageWriter = messageWriter;
+    this.windowMillis = windowMillis;
+    this.maxBatch = maxBatch;
+    this.timeoutMillis = timeoutMillis;
+    this.batchSizes = DistributionSummary.builder("kudos.board.appends.batch")
+        .description("Messages written to a board by one coalesced update")
+        .baseUnit("messages")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void append(final String boardId, final Message message)
+      throws ResourceNotFoundException {
+    if (stopped) {
+      messageWriter.append(boardId, List.of(message));
+      return;
+    }
+    final PendingAppend pending = new PendingAppend(message, new CompletableFuture<>(),
+        new AtomicBoolean());
+    final BoardQueue queue = queues.computeIfAbsent(boardId, BoardQueue::new);
+    queue.appends.offer(pending);
+    try {
+      if (queue.size.incrementAndGet() >= maxBatch) {
+        flushers.execute(() -> flush(queue));
+      } else if (queue.timerArmed.compareAndSet(false, true)) {
+        timers.schedule(() -> {
+          queue.timerArmed.set(false);
+          flushers.execute(() -> flush(queue));
+        }, windowMillis, TimeUnit.MILLISECONDS);
+      }
+    } catch (RejectedExecutionException ex) {
+      // Shutting down; the final flush may already have run.
+      takeOver(boardId, pending);
+      return;
+    }
+
+    try {
+      pending.written().get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      takeOver(boardId, pending);
+    } catch (ExecutionException ex) {
+      rethrow(boardId, ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted adding message to board " + boardId, ex);
+    }
+  }
+
+  @Override
+  public void destroy() throws InterruptedException {
+    stopped = true;
+    timers.shutdownNow();
+    flushers.shutdown();
+    flushers.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    queues.values().forEach(this::flush);
+  }
+
+  /**
+   * Writes an append directly unless a flush has already taken it, in which case the outcome of
+   * that flush's write is awaited.
+   */
+  private void takeOver(final String boardId, final PendingAppend pending)
+      throws ResourceNotFoundException {
+    if (pending.claim()) {
+      messageWriter.append(boardId, List.of(pending.message()));
+      return;
+    }
+    try {
+      pending.written().get();
+    } catch (ExecutionException ex) {
+      rethrow(boardId, ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted adding message to board " + boardId, ex);
+    }
+  }
+
+  private static void rethrow(final String boardId, final ExecutionException ex)
+      throws ResourceNotFoundException {
+    if (ex.getCause() instanceof ResourceNotFoundException notFound) {
+      throw notFound;
+    }
+    throw new IllegalStateException("Cannot add message to board " + boardId, ex.getCause());
+  }
+
+  /**
+   * Writes the queued appends of a board, a batch at a time, until its queue is empty. Only one
+   * thread writes a queue at a time; appends that arrive meanwhile are picked up by its loop, or
+   * by the recheck after it has finished. Drained queues are dropped so that idle boards do not
+   * hold on to one.
+   */
+  private void flush(final BoardQueue queue) {
+    if (!queue.flushing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      List<PendingAppend> batch;
+      while (!(batch = drain(queue)).isEmpty()) {
+        write(queue.boardId, batch);
+      }
+    } finally {
+      queue.flushing.set(false);
+    }
+    // An append racing with the removal still holds the queue and schedules its own flush.
+    queues.remove(queue.boardId, queue);
+    if (!queue.appends.isEmpty() && !stopped) {
+      try {
+        flushers.execute(() -> flush(queue));
+      } catch (RejectedExecutionException ex) {
+        // Shutting down; the final flush or the callers write what is left.
+      }
+    }
+  }
+
+  private List<PendingAppend> drain(final BoardQueue queue) {
+    final List<PendingAppend> batch = new ArrayList<>(maxBatch);
+    int polled = 0;
+    PendingAppend pending;
+    while (batch.size() < maxBatch && (pending = queue.appends.poll()) != null) {
+      polled++;
+      // Appends taken back by their callers are written by them.
+      if (pending.claim()) {
+        batch.add(pending);
+      }
+    }
+    queue.size.addAndGet(-polled);
+    return batch;
+  }
+
+  private void write(final String boardId, final List<PendingAppend> batch) {
+    batchSizes.record(batch.size());
+    try {
+      messageWriter.append(boardId, batch.stream().map(PendingAppend::message).toList());
+      batch.forEach(pending -> pending.written().complete(null));
+    } catch (ResourceNotFoundException | RuntimeException ex) {
+      if (!(ex instanceof ResourceNotFoundException)) {
+        logger.warn("Cannot add {} messages to board {}", batch.size(), boardId, ex);
+      }
+      batch.forEach(pending -> pending.written().completeExceptionally(ex));
+    }
+  }
+
+  private record PendingAppend(Message message, CompletableFuture<Void> written,
+                               AtomicBoolean claimed) {
+
+    boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+  }
+
+  private static final class BoardQueue {
+
+    private final String boardId;
+    private final Queue<PendingAppend> appends = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean timerArmed = new AtomicBoolean();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private BoardQueue(final String boardId) {
+      this.boardId = boardId;
+    }
+  }
+}
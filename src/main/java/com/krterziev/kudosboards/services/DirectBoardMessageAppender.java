@@ -0,0 +1,30 @@
+package com.krterziev.kudosboards.services;
+
+import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
+import com.krterziev.kudosboards.models.Message;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes every message to its board with its own update.
+ */
+@Component
+@ConditionalOnProperty(name = "krterziev.app.boards.appendBuffer.enabled", havingValue = "false",
+    matchIfMissing = true)
+public class DirectBoardMessageAppender implements BoardMessageAppender {
+
+  private final BoardMessageWriter messageWriter;
+
+  @Autowired
+  public DirectBoardMessageAppender(final BoardMessageWriter messageWriter) {
+    this.messageWriter = messageWriter;
+  }
+
+  @Override
+  public void append(final String boardId, final Message message)
+      throws ResourceNotFoundException {
+    messageWriter.append(boardId, List.of(message));
+  }
+}
@@ -0,0 +1,180 @@
+package com.krterziev.kudosboards.services;
+
+import com.krterziev.kudosboards.blobs.BlobInfo;
+import com.krterziev.kudosboards.blobs.BlobStore;
+import com.krterziev.kudosboards.exceptions.InvalidImageException;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.payload.request.MessageRequest;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the image of a {@link MessageRequest} to what is stored on the {@link Message}.
+ *
+ * <p>Images uploaded to {@code /api/images} are referenced by id, and only the id is stored on
+ * the message. Base64 data URLs, which older clients send inline, are decoded as a stream into
+ * the {@link BlobStore} and replaced by the id of the stored blob. Anything else in
+ * {@code image} is kept as an external link.
+ *
+ * <p>Images are served from the application's own origin, so only PNG, JPEG, GIF and WebP are
+ * stored, and only if their content starts with the signature of one of those formats. The type
+ * a client declares is never trusted: the stored type is the one the content was recognised as.
+ */
+@Component
+public class MessageImages {
+
+  public static final String URL_PREFIX = "/api/images/";
+
+  /**
+   * The image types that are stored and served as images.
+   */
+  public static final Set<String> IMAGE_TYPES = Set.of(MediaType.IMAGE_PNG_VALUE,
+      MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp");
+
+  private static final String DATA_URL_PREFIX = "data:";
+  private static final String BASE64_MARKER = ";base64,";
+  private static final String UNSUPPORTED_TYPE =
+      "Only PNG, JPEG, GIF and WebP images are accepted";
+  private static final int SIGNATURE_LENGTH = 12;
+  private static final byte[] PNG_SIGNATURE =
+      {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+  private static final byte[] JPEG_SIGNATURE = {(byte) 0xff, (byte) 0xd8, (byte) 0xff};
+  private static final byte[] GIF87_SIGNATURE = "GIF87a".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] GIF89_SIGNATURE = "GIF89a".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] RIFF_SIGNATURE = "RIFF".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] WEBP_SIGNATURE = "WEBP".getBytes(StandardCharsets.US_ASCII);
+
+  private final BlobStore blobStore;
+
+  @Autowired
+  public MessageImages(final BlobStore blobStore) {
+    this.blobStore = blobStore;
+  }
+
+  public static String imageUrl(final String imageId) {
+    return URL_PREFIX + imageId;
+  }
+
+  public static boolean isDataUrl(final String image) {
+    return image != null && image.regionMatches(true, 0, DATA_URL_PREFIX, 0,
+        DATA_URL_PREFIX.length());
+  }
+
+  /**
+   * Sets the image fields of {@code message} from {@code messageRequest}, storing inline images
+   * on the way.
+   */
+  public void apply(final Message message, final MessageRequest messageRequest)
+      throws InvalidImageException {
+    final String imageId = referencedImageId(messageRequest);
+    if (imageId != null) {
+      if (!blobStore.exists(imageId)) {
+        throw new InvalidImageException(String.format("Image %s not found", imageId));
+      }
+      message.setImageId(imageId);
+      message.setImage(null);
+    } else if (isDataUrl(messageRequest.image())) {
+      message.setImageId(storeDataUrl(messageRequest.image()).id());
+      message.setImage(null);
+    } else {
+      message.setImageId(null);
+      message.setImage(messageRequest.image());
+    }
+  }
+
+  /**
+   * Stores an uploaded image under the type its content is recognised as. Content declared as
+   * another type than PNG, JPEG, GIF or WebP, or not starting with the signature of one of them,
+   * is rejected without being stored.
+   */
+  public BlobInfo store(final InputStream content, final String declaredType)
+      throws InvalidImageException, IOException {
+    if (declaredType != null && !IMAGE_TYPES.contains(baseType(declaredType))) {
+      throw new InvalidImageException(UNSUPPORTED_TYPE);
+    }
+    final BufferedInputStream buffered = new BufferedInputStream(content);
+    buffered.mark(SIGNATURE_LENGTH);
+    final String contentType = detectType(buffered.readNBytes(SIGNATURE_LENGTH));
+    buffered.reset();
+    if (contentType == null) {
+      throw new InvalidImageException(UNSUPPORTED_TYPE);
+    }
+    return blobStore.store(buffered, contentType);
+  }
+
+  /**
+   * Moves a base64 data URL into the blob store.
+   */
+  public BlobInfo storeDataUrl(final String dataUrl) throws InvalidImageException {
+    final int marker = dataUrl.indexOf(BASE64_MARKER);
+    if (marker < 0) {
+      throw new InvalidImageException("Inline images must be base64 data URLs");
+    }
+    final String contentType = dataUrl.substring(DATA_URL_PREFIX.length(), marker);
+
+    final InputStream encoded = new ByteArrayInputStream(
+        dataUrl.getBytes(StandardCharsets.ISO_8859_1), marker + BASE64_MARKER.length(),
+        dataUrl.length());
+    try (InputStream decoded = Base64.getMimeDecoder().wrap(encoded)) {
+      return store(decoded, contentType);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidImageException("Inline image is not valid base64");
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Recognises an image by the signature its content starts with, or returns null.
+   */
+  static String detectType(final byte[] header) {
+    if (startsWith(header, 0, PNG_SIGNATURE)) {
+      return MediaType.IMAGE_PNG_VALUE;
+    }
+    if (startsWith(header, 0, JPEG_SIGNATURE)) {
+      return MediaType.IMAGE_JPEG_VALUE;
+    }
+    if (startsWith(header, 0, GIF87_SIGNATURE) || startsWith(header, 0, GIF89_SIGNATURE)) {
+      return MediaType.IMAGE_GIF_VALUE;
+    }
+    if (startsWith(header, 0, RIFF_SIGNATURE) && startsWith(header, 8, WEBP_SIGNATURE)) {
+      return "image/webp";
+    }
+    return null;
+  }
+
+  private static boolean startsWith(final byte[] header, final int offset,
+      final byte[] signature) {
+    return header.length >= offset + signature.length
+        && Arrays.equals(header, offset, offset + signature.length, signature, 0,
+        signature.length);
+  }
+
+  private static String baseType(final String contentType) {
+    final int parameters = contentType.indexOf(';');
+    return (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim()
+        .toLowerCase(Locale.ROOT);
+  }
+
+  private static String referencedImageId(final MessageRequest messageRequest) {
+    if (messageRequest.imageId() != null) {
+      return messageRequest.imageId();
+    }
+    final String image = messageRequest.image();
+    if (image != null && image.startsWith(URL_PREFIX)) {
+      return image.substring(URL_PREFIX.length());
+    }
+    return null;
+  }
+}
@@ -0,0 +1,48 @@
+package com.krterziev.kudosboards.services;
+
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCursor;
+import com.krterziev.kudosboards.models.MessagePage;
+import java.util.List;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Keyset pagination over messages ordered by {@code id}, shared by the blocking and reactive
+ * board services. Ids are immutable and never null, unlike {@code lastUpdated}, which an edit
+ * moves forward.
+ */
+final class MessagePages {
+
+  static final int MAX_PAGE_SIZE = 100;
+
+  private MessagePages() {
+  }
+
+  static int limit(final int pageSize) {
+    return Math.max(1, Math.min(pageSize, MAX_PAGE_SIZE));
+  }
+
+  /**
+   * Builds the query for the page after {@code after}, fetching one extra message so that
+   * {@link #toPage} can tell whether another page follows.
+   */
+  static Query pageQuery(final Criteria criteria, final MessageCursor after, final int limit) {
+    final Criteria pageCriteria = after == null ? criteria : new Criteria().andOperator(criteria,
+        Criteria.where("id").gt(new ObjectId(after.id())));
+    return Query.query(pageCriteria)
+        .with(Sort.by(Sort.Direction.ASC, "id"))
+        .limit(limit + 1);
+  }
+
+  static MessagePage toPage(final List<Message> messages, final int limit) {
+    if (messages.size() <= limit) {
+      return new MessagePage(messages, null);
+    }
+
+    final List<Message> page = messages.subList(0, limit);
+    return new MessagePage(page, MessageCursor.of(page.get(limit - 1)));
+  }
+}
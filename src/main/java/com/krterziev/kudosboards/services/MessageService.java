@@ -1,21 +1,50 @@
 package com.krterziev.kudosboards.services;
 
+import com.krterziev.kudosboards.exceptions.InvalidImageException;
 import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
 import com.krterziev.kudosboards.exceptions.UserAuthenticationException;
 import com.krterziev.kudosboards.exceptions.UserAuthorisationException;
 import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCreationResult;
 import com.krterziev.kudosboards.payload.request.MessageRequest;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface MessageService {
 
   void updateMessage(String id, MessageRequest messageRequest)
-      throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException;
+      throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException,
+      InvalidImageException;
+
+  Message createMessage(String boardId, MessageRequest messageRequest)
+      throws InvalidImageException;
+
+  /**
+   * Creates the valid messages of a batch with a single insert. The results are in request
+   * order; messages with an invalid image are rejected without failing the others.
+   */
+  List<MessageCreationResult> createMessages(String boardId, List<MessageRequest> messageRequests);
 
-  Message createMessage(MessageRequest messageRequest);
+  /**
+   * Removes messages that were created for a board they could not be added to.
+   */
+  void discardMessages(List<Message> messages);
+
+  /**
+   * Checks that the current user may change or delete the message, without changing it, so that
+   * callers can authorise a change before making its other writes.
+   */
+  void authoriseMessageChange(String id)
+      throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException;
 
   void deleteMessage(String id)
       throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException;
 
   Message getMessage(String messageId) throws ResourceNotFoundException;
+
+  /**
+   * Reads only when the message last changed, for answering conditional requests.
+   */
+  Optional<Instant> getMessageLastModified(String messageId);
 }
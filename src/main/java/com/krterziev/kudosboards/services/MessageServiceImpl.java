@@ -1,78 +1,197 @@
 package com.krterziev.kudosboards.services;
 
+import com.krterziev.kudosboards.events.BoardEvent;
+import com.krterziev.kudosboards.events.BoardEventBus;
+import com.krterziev.kudosboards.exceptions.InvalidImageException;
 import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
 import com.krterziev.kudosboards.exceptions.UserAuthenticationException;
 import com.krterziev.kudosboards.exceptions.UserAuthorisationException;
+import com.krterziev.kudosboards.models.Board;
 import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCreationResult;
 import com.krterziev.kudosboards.models.User;
 import com.krterziev.kudosboards.payload.request.MessageRequest;
 import com.krterziev.kudosboards.repository.MessageRepository;
 import com.krterziev.kudosboards.security.services.UserService;
 import com.krterziev.kudosboards.transformers.UpdateTransformer;
+import io.micrometer.core.annotation.Timed;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 @Service
 public class MessageServiceImpl implements MessageService {
 
+  private static final String BOARDS_COLLECTION = "boards";
+
   private final MessageRepository messageRepository;
   private final UserService userService;
+  private final BoardEventBus eventBus;
+  private final MessageImages messageImages;
+  private final MongoTemplate mongoTemplate;
+  private final BoardSummaries boardSummaries;
 
   @Autowired
   public MessageServiceImpl(final MessageRepository messageRepository,
-      final UserService userService) {
+      final UserService userService,
+      final BoardEventBus eventBus,
+      final MessageImages messageImages,
+      final MongoTemplate mongoTemplate,
+      final BoardSummaries boardSummaries) {
     this.messageRepository = messageRepository;
     this.userService = userService;
+    this.eventBus = eventBus;
+    this.messageImages = messageImages;
+    this.mongoTemplate = mongoTemplate;
+    this.boardSummaries = boardSummaries;
   }
 
   @Override
+  @Timed("kudos.service")
   public void updateMessage(String id, MessageRequest messageRequest)
-      throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException {
-    final User user = userService.getCurrentAuthUser();
-    final Message message = messageRepository.findById(id)
-        .orElseThrow(() -> new ResourceNotFoundException("Message", id));
-
-    if(message.getCreatedBy() != null
-        && !Objects.equals(message.getCreatedBy().getId(), user.getId())) {
-      throw new UserAuthorisationException();
-    }
+      throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException,
+      InvalidImageException {
+    final Message message = findOwnedMessage(id);
 
     UpdateTransformer.updateMessage(message, messageRequest);
+    messageImages.apply(message, messageRequest);
 
     messageRepository.save(message);
+    touchBoardOf(message);
+    boardSummaries.messageUpdated(message);
+    if (message.getBoardId() != null) {
+      eventBus.publish(BoardEvent.messageUpdated(message));
+    }
   }
 
   @Override
-  public Message createMessage(MessageRequest messageRequest) {
+  @Timed("kudos.service")
+  public Message createMessage(String boardId, MessageRequest messageRequest)
+      throws InvalidImageException {
     final Optional<User> user = userService.getCurrentUser();
-    final Message message = new Message(messageRequest.text(), messageRequest.image(),
+    final Message message = new Message(boardId, messageRequest.text(), null,
         Instant.now(), user.orElse(null));
+    messageImages.apply(message, messageRequest);
 
     messageRepository.save(message);
     return message;
   }
 
   @Override
+  @Timed("kudos.service")
+  public List<MessageCreationResult> createMessages(final String boardId,
+      final List<MessageRequest> messageRequests) {
+    final Optional<User> user = userService.getCurrentUser();
+    final Instant now = Instant.now();
+    final List<MessageCreationResult> results = new ArrayList<>(messageRequests.size());
+    final List<Message> accepted = new ArrayList<>(messageRequests.size());
+    for (final MessageRequest messageRequest : messageRequests) {
+      if (messageRequest == null) {
+        results.add(MessageCreationResult.rejected("Message is empty"));
+        continue;
+      }
+      final Message message = new Message(boardId, messageRequest.text(), null, now,
+          user.orElse(null));
+      try {
+        messageImages.apply(message, messageRequest);
+      } catch (InvalidImageException ex) {
+        results.add(MessageCreationResult.rejected(ex.getMessage()));
+        continue;
+      }
+      accepted.add(message);
+      results.add(MessageCreationResult.created(message));
+    }
+
+    if (!accepted.isEmpty()) {
+      // A single insertMany; ids are set on the accepted messages in place.
+      mongoTemplate.insert(accepted, Message.class);
+    }
+    return results;
+  }
+
+  @Override
+  @Timed("kudos.service")
+  public void discardMessages(final List<Message> messages) {
+    final List<String> ids = messages.stream().map(Message::getId).toList();
+    mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), Message.class);
+  }
+
+  @Override
+  @Timed("kudos.service")
   public void deleteMessage(String id)
       throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException {
-    final User user = userService.getCurrentAuthUser();
-    final Message message = messageRepository.findById(id)
-        .orElseThrow(() -> new ResourceNotFoundException("Message", id));
+    final Message message = findOwnedMessage(id);
 
-    if(message.getCreatedBy() != null
-        && !Objects.equals(message.getCreatedBy().getId(), user.getId())) {
-      throw new UserAuthorisationException();
+    messageRepository.deleteById(message.getId());
+    if (message.getBoardId() != null) {
+      mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(message.getBoardId())),
+          BoardVersions.touch()
+              .set(BoardVersions.REMOVED_MESSAGE_IDS, List.of(message.getId())),
+          Board.class);
     }
+  }
 
-    messageRepository.deleteById(message.getId());
+  @Override
+  @Timed("kudos.service")
+  public void authoriseMessageChange(final String id)
+      throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException {
+    findOwnedMessage(id);
+  }
+
+  @Override
+  @Timed("kudos.service")
+  public Optional<Instant> getMessageLastModified(final String messageId) {
+    final Query query = Query.query(Criteria.where("id").is(messageId));
+    query.fields().include("lastUpdated");
+    return Optional.ofNullable(mongoTemplate.findOne(query, Message.class))
+        .map(Message::getLastUpdated);
+  }
+
+  /**
+   * Bumps the version of the board showing the message, after the change has been saved.
+   * Messages written before board ids were recorded are found through the legacy
+   * {@code boards.messages} references, which is not indexed but rare.
+   */
+  private void touchBoardOf(final Message message) {
+    if (message.getBoardId() != null) {
+      mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(message.getBoardId())),
+          BoardVersions.touch(), Board.class);
+    } else {
+      mongoTemplate.updateMulti(
+          Query.query(Criteria.where("messages.$id").is(new ObjectId(message.getId()))),
+          BoardVersions.touch(), BOARDS_COLLECTION);
+    }
   }
 
   @Override
+  @Timed("kudos.service")
   public Message getMessage(String messageId) throws ResourceNotFoundException {
     return messageRepository.findById(messageId)
         .orElseThrow(() -> new ResourceNotFoundException("Message", messageId));
   }
+
+  /**
+   * Loads the message for a change by the current user, who must be its author unless the
+   * message was posted anonymously.
+   */
+  private Message findOwnedMessage(final String id)
+      throws UserAuthenticationException, ResourceNotFoundException, UserAuthorisationException {
+    final User user = userService.getCurrentAuthUser();
+    final Message message = messageRepository.findById(id)
+        .orElseThrow(() -> new ResourceNotFoundException("Message", id));
+
+    if (message.getCreatedBy() != null
+        && !Objects.equals(message.getCreatedBy().getId(), user.getId())) {
+      throw new UserAuthorisationException();
+    }
+    return message;
+  }
 }
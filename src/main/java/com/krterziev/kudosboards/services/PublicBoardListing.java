@@ -0,0 +1,217 @@
+package com.krterziev.kudosboards.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krterziev.kudosboards.events.BoardEvent;
+import com.krterziev.kudosboards.events.EBoardEventType;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.payload.response.BoardSummaryResponse;
+import com.krterziev.kudosboards.transformers.ResponseTransformer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Snapshot of the public board listing served to anonymous callers, held as the JSON body and
+ * its gzip encoding so that serving it copies bytes and does no Mongo or Jackson work.
+ *
+ * <p>A snapshot older than {@code krterziev.app.publicBoards.refreshAfterSeconds} is still
+ * served while a new one is built in the background, so callers only wait for Mongo when no
+ * snapshot was read for {@code ttlSeconds}. Board events refresh the snapshot when a board is
+ * created or changed, since an unlisted board may have just become public, and when a message of
+ * a listed board changes. Events arriving within {@code invalidationDelayMillis} of each other
+ * share one refresh, so a listing may lag a write by about that long.
+ *
+ * <p>Only change streams deliver the events of writes made on other nodes, including boards
+ * created through the reactive services. Without them such writes are listed once the snapshot
+ * is older than {@code refreshAfterSeconds}, and the listing lags them by up to that long.
+ */
+@Component
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class PublicBoardListing implements DisposableBean, MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(PublicBoardListing.class);
+
+  private final BoardSummaries boardSummaries;
+  private final ObjectMapper objectMapper;
+  private final long refreshAfterNanos;
+  private final long ttlNanos;
+  private final long invalidationDelayMillis;
+  private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(
+      new CustomizableThreadFactory("public-boards-"));
+  private final AtomicBoolean refreshPending = new AtomicBoolean();
+  private final ReentrantLock building = new ReentrantLock();
+  private final Timer builds;
+
+  private volatile Snapshot snapshot;
+
+  @Autowired
+  public PublicBoardListing(final BoardSummaries boardSummaries,
+      final ObjectMapper objectMapper,
+      final MeterRegistry meterRegistry,
+      @Value("${krterziev.app.publicBoards.refreshAfterSeconds:30}") final long refreshAfterSeconds,
+      @Value("${krterziev.app.publicBoards.ttlSeconds:300}") final long ttlSeconds,
+      @Value("${krterziev.app.publicBoards.invalidationDelayMillis:200}")
+      final long invalidationDelayMillis) {
+    this.boardSummaries = boardSummaries;
+    this.objectMapper = objectMapper;
+    this.refreshAfterNanos = Duration.ofSeconds(refreshAfterSeconds).toNanos();
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    this.invalidationDelayMillis = invalidationDelayMillis;
+    this.builds = Timer.builder("kudos.boards.public.build")
+        .description("Time spent loading and serialising the public board listing")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void bindTo(final MeterRegistry registry) {
+    Gauge.builder("kudos.boards.public.age", this,
+            listing -> listing.snapshot == null ? 0
+                : TimeUnit.NANOSECONDS.toSeconds(listing.snapshot.age()))
+        .description("Seconds since the public board listing was built")
+        .baseUnit("seconds")
+        .register(registry);
+  }
+
+  /**
+   * Returns the current snapshot, building it first only if there is none or it has expired.
+   */
+  public Snapshot get() {
+    final Snapshot current = snapshot;
+    if (current == null || current.age() > ttlNanos) {
+      return build(true);
+    }
+    if (current.age() > refreshAfterNanos) {
+      scheduleRefresh(0);
+    }
+    return current;
+  }
+
+  /**
+   * Drops the snapshot so that the next listing is loaded afresh, for writes that bypass the
+   * services and so publish no board events.
+   */
+  public void invalidate() {
+    building.lock();
+    try {
+      snapshot = null;
+    } finally {
+      building.unlock();
+    }
+  }
+
+  @EventListener
+  public void onBoardEvent(final BoardEvent event) {
+    final Snapshot current = snapshot;
+    if (event.type() == EBoardEventType.BOARD_CREATED
+        || event.type() == EBoardEventType.BOARD_UPDATED
+        || current != null && current.boardIds().contains(event.boardId())) {
+      scheduleRefresh(invalidationDelayMillis);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    refresher.shutdownNow();
+  }
+
+  private void scheduleRefresh(final long delayMillis) {
+    if (refreshPending.compareAndSet(false, true)) {
+      refresher.schedule(this::refresh, delayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void refresh() {
+    // Cleared before building, so that a write made during the build schedules another.
+    refreshPending.set(false);
+    try {
+      build(false);
+    } catch (RuntimeException ex) {
+      logger.warn("Cannot refresh the public board listing", ex);
+    }
+  }
+
+  /**
+   * Builds a new snapshot, one at a time. Callers that only need an unexpired snapshot and
+   * waited for another build get that build's snapshot rather than starting another.
+   */
+  private Snapshot build(final boolean onlyIfExpired) {
+    building.lock();
+    try {
+      final Snapshot current = snapshot;
+      if (onlyIfExpired && current != null && current.age() <= ttlNanos) {
+        return current;
+      }
+      final Snapshot built = builds.record(this::load);
+      snapshot = built;
+      return built;
+    } finally {
+      building.unlock();
+    }
+  }
+
+  private Snapshot load() {
+    final List<BoardSummary> boards = boardSummaries.findByAccessLevel(EBoardAccessLevel.PUBLIC);
+    final List<BoardSummaryResponse> responses = boards.stream()
+        .map(ResponseTransformer::toBoardSummaryResponse)
+        .toList();
+    final byte[] json;
+    try {
+      json = objectMapper.writeValueAsBytes(responses);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Cannot serialise the public board listing", ex);
+    }
+    final String digest = DigestUtils.md5DigestAsHex(json);
+    return new Snapshot(json, gzip(json), "\"" + digest + "\"", "\"" + digest + "-gzip\"",
+        boards.stream().map(BoardSummary::getId).collect(Collectors.toUnmodifiableSet()),
+        System.nanoTime());
+  }
+
+  private static byte[] gzip(final byte[] bytes) {
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(bytes);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return compressed.toByteArray();
+  }
+
+  /**
+   * The serialised listing and its gzip encoding, each with its own ETag since they are
+   * different representations, and the ids of the boards the listing holds.
+   */
+  public record Snapshot(byte[] json, byte[] gzipped, String etag, String gzipEtag,
+                         Set<String> boardIds, long builtAtNanos) {
+
+    long age() {
+      return System.nanoTime() - builtAtNanos;
+    }
+  }
+}
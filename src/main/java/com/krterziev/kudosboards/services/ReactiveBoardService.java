@@ -0,0 +1,34 @@
+package com.krterziev.kudosboards.services;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardOverview;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCursor;
+import com.krterziev.kudosboards.models.MessagePage;
+import com.krterziev.kudosboards.payload.request.CreateBoardRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link BoardService}. Failures are signalled with the same checked
+ * exceptions, delivered as error signals instead of being thrown.
+ */
+public interface ReactiveBoardService {
+
+  Mono<Board> getBoard(String id);
+
+  Mono<BoardOverview> getBoardOverview(String id, int pageSize);
+
+  Mono<MessagePage> getBoardMessages(String boardId, MessageCursor after, int pageSize);
+
+  Flux<BoardSummary> getAllBoards();
+
+  Mono<Board> createBoard(CreateBoardRequest board);
+
+  Mono<Message> addMessageToBoard(String boardId, Message message);
+
+  Mono<Void> deleteMessageFromBoard(String boardId, String messageId);
+
+  Mono<Void> addUserToBoard(String userId, String boardId);
+}
@@ -0,0 +1,276 @@
+package com.krterziev.kudosboards.services;
+
+import static com.krterziev.kudosboards.models.EBoardAccessLevel.PUBLIC;
+
+import com.krterziev.kudosboards.events.BoardEvent;
+import com.krterziev.kudosboards.events.BoardEventBus;
+import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
+import com.krterziev.kudosboards.exceptions.UserAuthorisationException;
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardOverview;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.EMessageStorage;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCursor;
+import com.krterziev.kudosboards.models.MessagePage;
+import com.krterziev.kudosboards.payload.request.CreateBoardRequest;
+import com.krterziev.kudosboards.repository.ReactiveReferenceResolver;
+import com.krterziev.kudosboards.security.services.ReactiveUserService;
+import com.mongodb.DBRef;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveBoardServiceImpl implements ReactiveBoardService {
+
+  private static final String BOARDS_COLLECTION = "boards";
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final ReactiveReferenceResolver referenceResolver;
+  private final ReactiveUserService userService;
+  private final EMessageStorage messageStorage;
+  private final BoardSummaries boardSummaries;
+  private final BoardEventBus eventBus;
+
+  @Autowired
+  public ReactiveBoardServiceImpl(final ReactiveMongoTemplate mongoTemplate,
+      final ReactiveReferenceResolver referenceResolver,
+      final ReactiveUserService userService,
+      @Value("${krterziev.app.messageStorage:EMBEDDED}") final EMessageStorage messageStorage,
+      final BoardSummaries boardSummaries,
+      final BoardEventBus eventBus) {
+    this.mongoTemplate = mongoTemplate;
+    this.referenceResolver = referenceResolver;
+    this.userService = userService;
+    this.messageStorage = messageStorage;
+    this.boardSummaries = boardSummaries;
+    this.eventBus = eventBus;
+  }
+
+  @Override
+  public Mono<Board> getBoard(final String id) {
+    final Mono<Board> board = switch (messageStorage) {
+      case EMBEDDED -> referenceResolver.findBoards(Query.query(Criteria.where("id").is(id)))
+          .next();
+      case BOARD_ID -> findBoardWithIndexedMessages(id);
+    };
+    return board.filterWhen(found -> switch (found.getAccessLevel()) {
+      case PUBLIC, LINK -> Mono.just(true);
+      case PRIVATE -> isCurrentUserMember(found.getId());
+    });
+  }
+
+  @Override
+  public Mono<BoardOverview> getBoardOverview(final String id, final int pageSize) {
+    return findReadableBoardReferences(id).flatMap(board -> {
+      final Criteria messages = boardMessagesCriteria(id);
+      return Mono.zip(mongoTemplate.count(Query.query(messages), Message.class),
+              findMessagePage(messages, null, pageSize))
+          .map(overview -> new BoardOverview(id, board.getString("name"), overview.getT1(),
+              overview.getT2()));
+    });
+  }
+
+  @Override
+  public Mono<MessagePage> getBoardMessages(final String boardId, final MessageCursor after,
+      final int pageSize) {
+    return findReadableBoardReferences(boardId)
+        .flatMap(board -> findMessagePage(boardMessagesCriteria(boardId), after, pageSize));
+  }
+
+  @Override
+  public Flux<BoardSummary> getAllBoards() {
+    return userService.getCurrentUser()
+        .map(user -> BoardSummaries.byMember(user.getId()))
+        .defaultIfEmpty(BoardSummaries.byAccessLevel(PUBLIC))
+        .flatMapMany(query -> mongoTemplate.find(query, BoardSummary.class));
+  }
+
+  @Override
+  public Mono<Board> createBoard(final CreateBoardRequest boardRequest) {
+    return userService.getCurrentAuthUser()
+        .map(user -> {
+          final Board board = new Board(boardRequest.name(),
+              Collections.emptyList(),
+              Collections.singletonList(user),
+              boardRequest.accessLevel());
+          board.setMemberIds(Collections.singletonList(user.getId()));
+          board.setLastModified(Instant.now());
+          return board;
+        })
+        .flatMap(mongoTemplate::insert)
+        .flatMap(board -> afterWrite(() -> boardSummaries.boardCreated(board),
+            BoardEvent.boardCreated(board.getId())).thenReturn(board));
+  }
+
+  @Override
+  public Mono<Message> addMessageToBoard(final String boardId, final Message message) {
+    final Query boardQuery = Query.query(Criteria.where("id").is(boardId));
+    final Update update = messageStorage == EMessageStorage.BOARD_ID ? BoardVersions.touch()
+        : BoardVersions.touch(new Update()
+            .addToSet("messages", new DBRef("messages", new ObjectId(message.getId()))));
+    update.set(BoardVersions.APPENDED_MESSAGE_IDS, List.of(message.getId()));
+    return mongoTemplate.updateFirst(boardQuery, update, Board.class)
+        .flatMap(result -> result.getMatchedCount() == 1L
+            ? afterWrite(() -> boardSummaries.messagesAdded(boardId, List.of(message)),
+                BoardEvent.messageAdded(boardId, message)).thenReturn(message)
+            : Mono.error(new ResourceNotFoundException("Board", boardId)));
+  }
+
+  @Override
+  public Mono<Void> deleteMessageFromBoard(final String boardId, final String messageId) {
+    final Query boardQuery = Query.query(Criteria.where("id").is(boardId));
+    if (messageStorage == EMessageStorage.BOARD_ID) {
+      final Query boardMessageQuery = Query.query(
+          Criteria.where("id").is(messageId).and("boardId").is(boardId));
+      return mongoTemplate.exists(boardMessageQuery, Message.class)
+          .flatMap(exists -> exists ? messageRemoved(boardId, messageId)
+              : mongoTemplate.exists(boardQuery, Board.class)
+                  .flatMap(boardExists -> Mono.<Void>error(boardExists
+                      ? new ResourceNotFoundException("Message", messageId)
+                      : new ResourceNotFoundException("Board", boardId))));
+    }
+
+    final ObjectId messageRef = new ObjectId(messageId);
+    final Query boardMessageQuery = Query.query(Criteria.where("_id").is(new ObjectId(boardId))
+        .and("messages.$id").is(messageRef));
+    final Update messageUpdate =
+        BoardVersions.touch(new Update().pull("messages", new Document("$id", messageRef)));
+    return mongoTemplate.updateFirst(boardMessageQuery, messageUpdate, BOARDS_COLLECTION)
+        .flatMap(result -> result.getMatchedCount() == 1L ? messageRemoved(boardId, messageId)
+            : mongoTemplate.exists(boardQuery, Board.class)
+                .flatMap(boardExists -> Mono.<Void>error(boardExists
+                    ? new ResourceNotFoundException("Message", messageId)
+                    : new ResourceNotFoundException("Board", boardId))));
+  }
+
+  @Override
+  public Mono<Void> addUserToBoard(final String userId, final String boardId) {
+    if (!ObjectId.isValid(boardId)) {
+      return Mono.error(new ResourceNotFoundException("Board", boardId));
+    }
+    final Mono<BoardMembers.Members> members = mongoTemplate.findOne(
+            BoardMembers.membersQuery(boardId), Document.class, BOARDS_COLLECTION)
+        .map(BoardMembers::toMembers)
+        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Board", boardId)));
+    final Mono<Boolean> futureBoardUser = userService.userExists(userId)
+        .filter(Boolean::booleanValue)
+        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User", userId)));
+
+    return Mono.zip(members, futureBoardUser)
+        .flatMap(found -> userService.getCurrentAuthUser()
+            .flatMap(user -> found.getT1().ids().contains(user.getId())
+                ? Mono.just(user) : Mono.error(UserAuthorisationException::new)))
+        .flatMap(user -> {
+          final Query boardQuery = Query.query(Criteria.where("id").is(new ObjectId(boardId)));
+          final Update update = BoardVersions.touch(new Update()
+              .addToSet("users", new DBRef("users", new ObjectId(userId))));
+          // Member ids are only added to boards that record them, as BoardMembers does.
+          final Query recorded = Query.query(Criteria.where("_id").is(new ObjectId(boardId))
+              .and("memberIds").exists(true));
+          return mongoTemplate.updateFirst(boardQuery, update, Board.class)
+              .then(mongoTemplate.updateFirst(recorded,
+                  new Update().addToSet("memberIds", userId), BOARDS_COLLECTION));
+        })
+        .then(afterWrite(() -> boardSummaries.membersAdded(boardId, List.of(userId)),
+            BoardEvent.boardUpdated(boardId)));
+  }
+
+  private Mono<Void> messageRemoved(final String boardId, final String messageId) {
+    return afterWrite(() -> boardSummaries.messageRemoved(boardId, messageId),
+        BoardEvent.messageDeleted(boardId, messageId));
+  }
+
+  /**
+   * Applies a write to the board summaries and then publishes its event, as the servlet service
+   * does. Summaries are kept through the blocking driver and event listeners may block, so this
+   * runs on the bounded elastic scheduler.
+   */
+  private Mono<Void> afterWrite(final Runnable summaryUpdate, final BoardEvent event) {
+    return Mono.fromRunnable(() -> {
+      summaryUpdate.run();
+      eventBus.publish(event);
+    }).subscribeOn(Schedulers.boundedElastic()).then();
+  }
+
+  /**
+   * Loads the name and access level of a board the current user may read.
+   */
+  private Mono<Document> findReadableBoardReferences(final String boardId) {
+    if (!ObjectId.isValid(boardId)) {
+      return Mono.empty();
+    }
+    final Query query = Query.query(Criteria.where("_id").is(new ObjectId(boardId)));
+    query.fields().include("name", "accessLevel");
+    return mongoTemplate.findOne(query, Document.class, BOARDS_COLLECTION)
+        .filterWhen(board -> switch (EBoardAccessLevel.valueOf(board.getString("accessLevel"))) {
+          case PUBLIC, LINK -> Mono.just(true);
+          case PRIVATE -> isCurrentUserMember(boardId);
+        });
+  }
+
+  /**
+   * Checks membership with the indexed query of {@link BoardMembers}, without reading the
+   * board's {@code users} references unless it has no member ids yet.
+   */
+  private Mono<Boolean> isCurrentUserMember(final String boardId) {
+    return userService.getCurrentUser()
+        .flatMap(user -> ObjectId.isValid(boardId)
+            ? mongoTemplate.exists(BoardMembers.membershipQuery(user.getId(), boardId),
+                BOARDS_COLLECTION)
+            : Mono.just(false))
+        .defaultIfEmpty(false);
+  }
+
+  /**
+   * Loads a board without its legacy {@code messages} references and attaches its messages with
+   * a single range query on the {@code boardId} index instead.
+   */
+  private Mono<Board> findBoardWithIndexedMessages(final String boardId) {
+    final Query boardQuery = Query.query(Criteria.where("id").is(boardId));
+    boardQuery.fields().exclude("messages");
+    final Query messagesQuery = Query.query(Criteria.where("boardId").is(boardId))
+        .with(Sort.by(Sort.Direction.ASC, "id"));
+    return referenceResolver.findBoards(boardQuery).next()
+        .flatMap(board -> referenceResolver.findMessages(messagesQuery).collectList()
+            .map(messages -> {
+              board.setMessages(messages);
+              return board;
+            }));
+  }
+
+  /**
+   * Selects a board's messages on the indexed {@code boardId} in both storage modes, as the
+   * blocking service does.
+   */
+  private static Criteria boardMessagesCriteria(final String boardId) {
+    return Criteria.where("boardId").is(boardId);
+  }
+
+  private Mono<MessagePage> findMessagePage(final Criteria criteria, final MessageCursor after,
+      final int pageSize) {
+    final int limit = MessagePages.limit(pageSize);
+    final Mono<List<Message>> messages =
+        referenceResolver.findMessages(MessagePages.pageQuery(criteria, after, limit))
+            .collectList();
+    return messages.map(page -> MessagePages.toPage(page, limit));
+  }
+}
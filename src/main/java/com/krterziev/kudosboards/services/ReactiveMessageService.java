@@ -0,0 +1,24 @@
+package com.krterziev.kudosboards.services;
+
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.payload.request.MessageRequest;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link MessageService}.
+ */
+public interface ReactiveMessageService {
+
+  Mono<Void> updateMessage(String id, MessageRequest messageRequest);
+
+  Mono<Message> createMessage(String boardId, MessageRequest messageRequest);
+
+  /**
+   * Completes if the current user may change or delete the message, without changing it.
+   */
+  Mono<Void> authoriseMessageChange(String id);
+
+  Mono<Void> deleteMessage(String id);
+
+  Mono<Message> getMessage(String messageId);
+}
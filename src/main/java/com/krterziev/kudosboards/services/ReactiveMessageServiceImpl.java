@@ -0,0 +1,164 @@
+package com.krterziev.kudosboards.services;
+
+import com.krterziev.kudosboards.events.BoardEvent;
+import com.krterziev.kudosboards.events.BoardEventBus;
+import com.krterziev.kudosboards.exceptions.ResourceNotFoundException;
+import com.krterziev.kudosboards.exceptions.UserAuthorisationException;
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.payload.request.MessageRequest;
+import com.krterziev.kudosboards.repository.ReactiveReferenceResolver;
+import com.krterziev.kudosboards.security.services.ReactiveUserService;
+import com.krterziev.kudosboards.transformers.UpdateTransformer;
+import com.mongodb.client.result.UpdateResult;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveMessageServiceImpl implements ReactiveMessageService {
+
+  private static final String BOARDS_COLLECTION = "boards";
+
+  private final ReactiveMongoTemplate mongoTemplate;
+  private final ReactiveReferenceResolver referenceResolver;
+  private final ReactiveUserService userService;
+  private final MessageImages messageImages;
+  private final BoardSummaries boardSummaries;
+  private final BoardEventBus eventBus;
+
+  @Autowired
+  public ReactiveMessageServiceImpl(final ReactiveMongoTemplate mongoTemplate,
+      final ReactiveReferenceResolver referenceResolver,
+      final ReactiveUserService userService,
+      final MessageImages messageImages,
+      final BoardSummaries boardSummaries,
+      final BoardEventBus eventBus) {
+    this.mongoTemplate = mongoTemplate;
+    this.referenceResolver = referenceResolver;
+    this.userService = userService;
+    this.messageImages = messageImages;
+    this.boardSummaries = boardSummaries;
+    this.eventBus = eventBus;
+  }
+
+  @Override
+  public Mono<Void> updateMessage(final String id, final MessageRequest messageRequest) {
+    return findOwnedMessage(id)
+        .flatMap(message -> {
+          UpdateTransformer.updateMessage(message, messageRequest);
+          return applyImage(message, messageRequest);
+        })
+        .flatMap(mongoTemplate::save)
+        .flatMap(message -> touchBoardOf(message)
+            .then(Mono.fromRunnable(() -> messageUpdated(message))
+                .subscribeOn(Schedulers.boundedElastic())))
+        .then();
+  }
+
+  @Override
+  public Mono<Message> createMessage(final String boardId, final MessageRequest messageRequest) {
+    return userService.getCurrentUser()
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .map(user -> new Message(boardId, messageRequest.text(), null,
+            Instant.now(), user.orElse(null)))
+        .flatMap(message -> applyImage(message, messageRequest))
+        .flatMap(mongoTemplate::insert);
+  }
+
+  @Override
+  public Mono<Void> deleteMessage(final String id) {
+    return findOwnedMessage(id)
+        .flatMap(message -> mongoTemplate.remove(
+                Query.query(Criteria.where("id").is(message.getId())), Message.class)
+            .then(message.getBoardId() == null ? Mono.<UpdateResult>empty()
+                : mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(message.getBoardId())),
+                    BoardVersions.touch()
+                        .set(BoardVersions.REMOVED_MESSAGE_IDS, List.of(message.getId())),
+                    Board.class)))
+        .then();
+  }
+
+  @Override
+  public Mono<Void> authoriseMessageChange(final String id) {
+    return findOwnedMessage(id).then();
+  }
+
+  @Override
+  public Mono<Message> getMessage(final String messageId) {
+    return findMessage(messageId)
+        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Message", messageId)));
+  }
+
+  /**
+   * Applies an edit to the board summaries and publishes it, as the servlet service does.
+   */
+  private void messageUpdated(final Message message) {
+    boardSummaries.messageUpdated(message);
+    if (message.getBoardId() != null) {
+      eventBus.publish(BoardEvent.messageUpdated(message));
+    }
+  }
+
+  /**
+   * Resolves the image of the request. Storing an inline image streams it into GridFS through
+   * the blocking driver, so this runs on the bounded elastic scheduler.
+   */
+  private Mono<Message> applyImage(final Message message, final MessageRequest messageRequest) {
+    return Mono.fromCallable(() -> {
+      messageImages.apply(message, messageRequest);
+      return message;
+    }).subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Bumps the version of the board showing the message, after the change has been saved.
+   */
+  private Mono<UpdateResult> touchBoardOf(final Message message) {
+    if (message.getBoardId() != null) {
+      return mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(message.getBoardId())),
+          BoardVersions.touch(), Board.class);
+    }
+    return mongoTemplate.updateMulti(
+        Query.query(Criteria.where("messages.$id").is(new ObjectId(message.getId()))),
+        BoardVersions.touch(), BOARDS_COLLECTION);
+  }
+
+  private Mono<Message> findMessage(final String messageId) {
+    if (!ObjectId.isValid(messageId)) {
+      return Mono.empty();
+    }
+    return referenceResolver.findMessages(Query.query(Criteria.where("id").is(messageId))).next();
+  }
+
+  /**
+   * Loads the message for a change by the current user, who must be its author unless the
+   * message was posted anonymously.
+   */
+  private Mono<Message> findOwnedMessage(final String id) {
+    return userService.getCurrentAuthUser().flatMap(user -> findMessage(id)
+        .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Message", id)))
+        .flatMap(message -> isEditableBy(message, user) ? Mono.just(message)
+            : Mono.error(UserAuthorisationException::new)));
+  }
+
+  private static boolean isEditableBy(final Message message, final User user) {
+    return message.getCreatedBy() == null
+        || Objects.equals(message.getCreatedBy().getId(), user.getId());
+  }
+}
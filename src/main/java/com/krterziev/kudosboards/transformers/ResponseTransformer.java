@@ -1,10 +1,31 @@
 package com.krterziev.kudosboards.transformers;
 
+import com.krterziev.kudosboards.events.BoardEvent;
 import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardOverview;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.EMemberAddition;
+import com.krterziev.kudosboards.models.MemberAdditionResult;
 import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCreationResult;
+import com.krterziev.kudosboards.models.MessageCursor;
+import com.krterziev.kudosboards.models.MessagePage;
+import com.krterziev.kudosboards.models.MessagePreview;
 import com.krterziev.kudosboards.payload.request.MessageRequest;
+import com.krterziev.kudosboards.payload.response.BoardEventResponse;
+import com.krterziev.kudosboards.payload.response.BoardMemberBatchItemResponse;
+import com.krterziev.kudosboards.payload.response.BoardMemberBatchResponse;
+import com.krterziev.kudosboards.payload.response.BoardOverviewResponse;
 import com.krterziev.kudosboards.payload.response.BoardResponse;
+import com.krterziev.kudosboards.payload.response.BoardSummaryResponse;
+import com.krterziev.kudosboards.payload.response.MessageBatchItemResponse;
+import com.krterziev.kudosboards.payload.response.MessageBatchResponse;
+import com.krterziev.kudosboards.payload.response.MessagePageResponse;
 import com.krterziev.kudosboards.payload.response.MessageResponse;
+import com.krterziev.kudosboards.services.MessageImages;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.springframework.http.HttpStatus;
 
 public class ResponseTransformer {
 
@@ -16,7 +37,91 @@ public class ResponseTransformer {
         board.getMessages().stream().map(ResponseTransformer::toMessageResponse).toList());
   }
 
+  public static BoardSummaryResponse toBoardSummaryResponse(final BoardSummary summary) {
+    final List<MessagePreview> previews = summary.getLatestMessages() == null ? List.of()
+        : summary.getLatestMessages();
+    return new BoardSummaryResponse(summary.getId(), summary.getName(),
+        summary.getAccessLevel() == null ? null : summary.getAccessLevel().name(),
+        summary.getMessageCount(), summary.getLastActivity(),
+        previews.stream()
+            .map(preview -> new MessageResponse(preview.messageId(), preview.text(),
+                preview.image()))
+            .toList());
+  }
+
+  public static BoardOverviewResponse toBoardOverviewResponse(final BoardOverview overview) {
+    final MessagePage firstPage = overview.firstPage();
+    return new BoardOverviewResponse(overview.id(), overview.name(), overview.messageCount(),
+        toMessageResponses(firstPage.messages()), encodeCursor(firstPage.nextCursor()));
+  }
+
+  public static MessagePageResponse toMessagePageResponse(final MessagePage page) {
+    return new MessagePageResponse(toMessageResponses(page.messages()),
+        encodeCursor(page.nextCursor()));
+  }
+
+  public static BoardEventResponse toBoardEventResponse(final BoardEvent event) {
+    return new BoardEventResponse(event.type().name(), event.boardId(), event.messageId(),
+        event.message() == null ? null : toMessageResponse(event.message()));
+  }
+
   public static MessageResponse toMessageResponse(final Message message) {
-    return new MessageResponse(message.getId(), message.getText(), message.getImage());
+    final String image = message.getImageId() != null
+        ? MessageImages.imageUrl(message.getImageId()) : message.getImage();
+    return new MessageResponse(message.getId(), message.getText(), image);
+  }
+
+  public static MessageBatchResponse toMessageBatchResponse(final String boardId,
+      final List<MessageCreationResult> results) {
+    final List<MessageBatchItemResponse> items = IntStream.range(0, results.size())
+        .mapToObj(index -> {
+          final MessageCreationResult result = results.get(index);
+          if (!result.isCreated()) {
+            return new MessageBatchItemResponse(index, HttpStatus.BAD_REQUEST.value(), null, null,
+                result.error());
+          }
+          final String id = result.message().getId();
+          return new MessageBatchItemResponse(index, HttpStatus.CREATED.value(), id,
+              String.format("/api/boards/%s/messages/%s", boardId, id), null);
+        })
+        .toList();
+    final int created = (int) results.stream().filter(MessageCreationResult::isCreated).count();
+    return new MessageBatchResponse(created, results.size() - created, items);
+  }
+
+  public static BoardMemberBatchResponse toBoardMemberBatchResponse(
+      final List<MemberAdditionResult> results) {
+    final List<BoardMemberBatchItemResponse> items = IntStream.range(0, results.size())
+        .mapToObj(index -> {
+          final MemberAdditionResult result = results.get(index);
+          return switch (result.outcome()) {
+            case ADDED -> new BoardMemberBatchItemResponse(index, result.userId(),
+                HttpStatus.CREATED.value(), null);
+            case ALREADY_MEMBER -> new BoardMemberBatchItemResponse(index, result.userId(),
+                HttpStatus.OK.value(), null);
+            case USER_NOT_FOUND -> new BoardMemberBatchItemResponse(index, result.userId(),
+                HttpStatus.NOT_FOUND.value(), String.format("User %s not found", result.userId()));
+            case INVALID_ID -> new BoardMemberBatchItemResponse(index, result.userId(),
+                HttpStatus.BAD_REQUEST.value(), "Invalid user id");
+          };
+        })
+        .toList();
+    final int added = count(results, EMemberAddition.ADDED);
+    final int unchanged = count(results, EMemberAddition.ALREADY_MEMBER);
+    return new BoardMemberBatchResponse(added, unchanged, results.size() - added - unchanged,
+        items);
+  }
+
+  private static int count(final List<MemberAdditionResult> results,
+      final EMemberAddition outcome) {
+    return (int) results.stream().filter(result -> result.outcome() == outcome).count();
+  }
+
+  private static List<MessageResponse> toMessageResponses(final List<Message> messages) {
+    return messages.stream().map(ResponseTransformer::toMessageResponse).toList();
+  }
+
+  private static String encodeCursor(final MessageCursor cursor) {
+    return cursor == null ? null : cursor.encode();
   }
 }
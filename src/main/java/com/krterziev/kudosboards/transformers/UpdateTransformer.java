@@ -9,10 +9,13 @@ public class UpdateTransformer {
   private UpdateTransformer() {
   }
 
+  /**
+   * Applies the text of an update. The image is resolved separately by
+   * {@link com.krterziev.kudosboards.services.MessageImages}.
+   */
   public static void updateMessage(final Message message, final MessageRequest messageRequest) {
     message.setLastUpdated(Instant.now());
     message.setText(messageRequest.text());
-    message.setImage(messageRequest.image());
   }
 
 }
@@ -0,0 +1,122 @@
+package com.krterziev.kudosboards.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.payload.request.LoginRequest;
+import com.krterziev.kudosboards.payload.request.SignupRequest;
+import com.krterziev.kudosboards.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+// One hashing thread and room for one more hash in the queue, so that two slow hashes fill it.
+@SpringBootTest(properties = {
+    "krterziev.app.passwords.strength=4",
+    "krterziev.app.passwords.threads=1",
+    "krterziev.app.passwords.queueCapacity=1"})
+@AutoConfigureMockMvc
+class AuthControllerPasswordHashingTests {
+
+  /**
+   * A well-formed hash with work factor 15. Checking a password against it takes seconds
+   * whatever the configured factor, which keeps the hashing thread busy.
+   */
+  private static final String SLOW_HASH =
+      "$2a$15$abcdefghijklmnopqrstuuwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0";
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  PasswordEncoder passwordEncoder;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  private final ExecutorService callers = Executors.newCachedThreadPool();
+
+  @BeforeEach
+  void clean() {
+    userRepository.deleteAll();
+  }
+
+  @AfterEach
+  void awaitIdleHashers() throws InterruptedException {
+    callers.shutdownNow();
+    // The slow hashes cannot be interrupted; later tests need the queue empty again.
+    awaitGauges(0, 0, 60_000);
+  }
+
+  @Test
+  void signupIsUnavailableWhileTheHashingQueueIsFull() throws Exception {
+    callers.submit(() -> passwordEncoder.matches("secret123", SLOW_HASH));
+    awaitGauges(1, 0, 5_000);
+    callers.submit(() -> passwordEncoder.matches("secret123", SLOW_HASH));
+    awaitGauges(1, 1, 5_000);
+
+    final SignupRequest request = new SignupRequest();
+    request.setUsername("alice");
+    request.setEmail("alice@example.com");
+    request.setPassword("secret123");
+    mockMvc.perform(post("/api/auth/signup")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isServiceUnavailable());
+
+    assertThat(userRepository.count()).isZero();
+    assertThat(meterRegistry.get("kudos.auth.password.rejected").counter().count())
+        .isGreaterThanOrEqualTo(1);
+  }
+
+  @Test
+  void signInRehashesAPasswordMadeWithAnotherWorkFactor() throws Exception {
+    userRepository.save(new User("alice", "alice@example.com",
+        new BCryptPasswordEncoder(5).encode("secret123")));
+
+    final LoginRequest request = new LoginRequest();
+    request.setUsername("alice");
+    request.setPassword("secret123");
+    mockMvc.perform(post("/api/auth/signin")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk());
+
+    final String stored = userRepository.findByUsername("alice").orElseThrow().getPassword();
+    assertThat(stored).startsWith("$2a$04$");
+    assertThat(passwordEncoder.matches("secret123", stored)).isTrue();
+  }
+
+  private void awaitGauges(final double active, final double queued, final long timeoutMillis)
+      throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (gauge("kudos.auth.password.active") != active
+        || gauge("kudos.auth.password.queue") != queued) {
+      assertThat(System.currentTimeMillis()).isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private double gauge(final String name) {
+    return meterRegistry.get(name).gauge().value();
+  }
+}
@@ -0,0 +1,106 @@
+package com.krterziev.kudosboards.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.krterziev.kudosboards.models.ERole;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.repository.UserRepository;
+import com.krterziev.kudosboards.security.jwt.JwtUtils;
+import com.krterziev.kudosboards.security.services.RoleRegistry;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import java.util.Set;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerRefreshTests {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  RoleRegistry roleRegistry;
+
+  @Autowired
+  JwtUtils jwtUtils;
+
+  private User user;
+
+  @BeforeEach
+  void seedUser() {
+    userRepository.deleteAll();
+    user = new User("alice", "alice@example.com", "secret");
+    user.setRoles(Set.of(roleRegistry.get(ERole.ROLE_USER)));
+    user = userRepository.save(user);
+  }
+
+  @Test
+  void refreshIssuesAnAccessTokenWithTheCurrentRoles() throws Exception {
+    final UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+    final String accessToken = jwtUtils.generateAccessToken(userDetails);
+    final String refreshToken = jwtUtils.generateRefreshToken(userDetails);
+
+    user.setRoles(Set.of(roleRegistry.get(ERole.ROLE_MODERATOR)));
+    userRepository.save(user);
+
+    final String body = refresh(refreshToken)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.refreshToken").value(refreshToken))
+        .andExpect(jsonPath("$.roles").value(Matchers.contains("ROLE_MODERATOR")))
+        .andReturn().getResponse().getContentAsString();
+    final String refreshed = JsonPath.read(body, "$.accessToken");
+
+    // The old access token keeps the roles it was issued with until it expires.
+    getAs("/api/test/mod", accessToken).andExpect(status().isForbidden());
+    getAs("/api/test/mod", refreshed).andExpect(status().isOk());
+  }
+
+  @Test
+  void refreshTokenCannotAuthenticateRequests() throws Exception {
+    final String refreshToken = jwtUtils.generateRefreshToken(UserDetailsImpl.build(user));
+
+    getAs("/api/test/user", refreshToken).andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void accessTokenCannotBeRefreshed() throws Exception {
+    final String accessToken = jwtUtils.generateAccessToken(UserDetailsImpl.build(user));
+
+    refresh(accessToken).andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void refreshTokenOfADeletedUserIsRejectedWhenTheNameIsTakenAgain() throws Exception {
+    final String refreshToken = jwtUtils.generateRefreshToken(UserDetailsImpl.build(user));
+    userRepository.delete(user);
+    userRepository.save(new User("alice", "alice@example.com", "secret"));
+
+    refresh(refreshToken).andExpect(status().isUnauthorized());
+  }
+
+  private ResultActions refresh(final String refreshToken) throws Exception {
+    return mockMvc.perform(post("/api/auth/refresh")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"refreshToken\":\"" + refreshToken + "\"}"));
+  }
+
+  private ResultActions getAs(final String path, final String token) throws Exception {
+    return mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+  }
+}
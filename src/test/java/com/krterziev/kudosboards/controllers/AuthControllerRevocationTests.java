@@ -0,0 +1,158 @@
+package com.krterziev.kudosboards.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.krterziev.kudosboards.models.ERole;
+import com.krterziev.kudosboards.models.RevokedToken;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.repository.UserRepository;
+import com.krterziev.kudosboards.security.jwt.JwtUtils;
+import com.krterziev.kudosboards.security.jwt.TokenRevocations;
+import com.krterziev.kudosboards.security.services.RoleRegistry;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import java.time.Instant;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = "krterziev.app.revocations.refreshMillis=100")
+@AutoConfigureMockMvc
+class AuthControllerRevocationTests {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  RoleRegistry roleRegistry;
+
+  @Autowired
+  JwtUtils jwtUtils;
+
+  @Autowired
+  MongoTemplate mongoTemplate;
+
+  private UserDetailsImpl userDetails;
+
+  @BeforeEach
+  void seedUser() {
+    mongoTemplate.remove(new Query(), RevokedToken.class);
+    userRepository.deleteAll();
+    final User user = new User("alice", "alice@example.com", "secret");
+    user.setRoles(Set.of(roleRegistry.get(ERole.ROLE_USER)));
+    userDetails = UserDetailsImpl.build(userRepository.save(user));
+  }
+
+  @Test
+  void tokensRevokedAtSignOutAreRejectedOnTheNextRequest() throws Exception {
+    final String accessToken = jwtUtils.generateAccessToken(userDetails);
+    final String refreshToken = jwtUtils.generateRefreshToken(userDetails);
+    assertThat(userEndpoint(accessToken)).isEqualTo(200);
+    assertThat(refresh(refreshToken)).isEqualTo(200);
+
+    mockMvc.perform(post("/api/auth/signout")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(refreshRequest(refreshToken)))
+        .andExpect(status().isOk());
+
+    assertThat(userEndpoint(accessToken)).isEqualTo(401);
+    assertThat(refresh(refreshToken)).isEqualTo(401);
+  }
+
+  @Test
+  void tokensRevokedByAnotherInstanceAreRejectedAfterTheNextRefresh() throws Exception {
+    final String accessToken = jwtUtils.generateAccessToken(userDetails);
+    final String refreshToken = jwtUtils.generateRefreshToken(userDetails);
+    // Both tokens are checked, and found valid, before the revocations reach this instance.
+    assertThat(userEndpoint(accessToken)).isEqualTo(200);
+    assertThat(refresh(refreshToken)).isEqualTo(200);
+
+    saveRevocation(jwtUtils.parseVerifiedClaims(accessToken).orElseThrow());
+    saveRevocation(jwtUtils.parseRefreshClaims(refreshToken).orElseThrow());
+
+    awaitStatus(() -> userEndpoint(accessToken), 401);
+    awaitStatus(() -> refresh(refreshToken), 401);
+  }
+
+  @Test
+  void revocationsAreKeptWhenTheFilterIsRebuilt() throws Exception {
+    // Rebuilds on every refresh, and remembers only one revocation exactly, so that the other
+    // is answered from the rebuilt filter and Mongo.
+    final TokenRevocations rebuilding = new TokenRevocations(mongoTemplate, 16, 0.01, 1, 50, 0);
+    rebuilding.afterPropertiesSet();
+    try {
+      final Claims access = jwtUtils.parseVerifiedClaims(
+          jwtUtils.generateAccessToken(userDetails)).orElseThrow();
+      final Claims refresh = jwtUtils.parseRefreshClaims(
+          jwtUtils.generateRefreshToken(userDetails)).orElseThrow();
+      final Claims valid = jwtUtils.parseVerifiedClaims(
+          jwtUtils.generateAccessToken(userDetails)).orElseThrow();
+
+      assertThat(rebuilding.revoke(access)).isTrue();
+      saveRevocation(refresh);
+      Thread.sleep(500);
+
+      assertThat(rebuilding.isRevoked(access.getId())).isTrue();
+      assertThat(rebuilding.isRevoked(refresh.getId())).isTrue();
+      assertThat(rebuilding.isRevoked(valid.getId())).isFalse();
+    } finally {
+      rebuilding.destroy();
+    }
+  }
+
+  private int userEndpoint(final String accessToken) throws Exception {
+    return mockMvc.perform(get("/api/test/user")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+        .andReturn().getResponse().getStatus();
+  }
+
+  private int refresh(final String refreshToken) throws Exception {
+    return mockMvc.perform(post("/api/auth/refresh")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(refreshRequest(refreshToken)))
+        .andReturn().getResponse().getStatus();
+  }
+
+  private static String refreshRequest(final String refreshToken) {
+    return "{\"refreshToken\":\"" + refreshToken + "\"}";
+  }
+
+  /**
+   * Records a revocation the way another instance would, without telling this one.
+   */
+  private void saveRevocation(final Claims claims) {
+    mongoTemplate.save(new RevokedToken(claims.getId(), claims.getSubject(),
+        claims.getExpiration().toInstant(), Instant.now()));
+  }
+
+  private static void awaitStatus(final StatusCall call, final int expected) throws Exception {
+    final long deadline = System.currentTimeMillis() + 5_000;
+    int status = call.status();
+    while (status != expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+      status = call.status();
+    }
+    assertThat(status).isEqualTo(expected);
+  }
+
+  @FunctionalInterface
+  private interface StatusCall {
+
+    int status() throws Exception;
+  }
+}
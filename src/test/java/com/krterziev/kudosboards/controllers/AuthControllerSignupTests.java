@@ -0,0 +1,67 @@
+package com.krterziev.kudosboards.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krterziev.kudosboards.payload.request.SignupRequest;
+import com.krterziev.kudosboards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerSignupTests {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @BeforeEach
+  void clean() {
+    userRepository.deleteAll();
+  }
+
+  @Test
+  void takenUsernameIsReportedAsSuch() throws Exception {
+    signUp("alice", "alice@example.com").andExpect(status().isOk());
+
+    signUp("alice", "other@example.com")
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Error: Username is already taken!"));
+    assertThat(userRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  void takenEmailIsReportedAsSuch() throws Exception {
+    signUp("alice", "alice@example.com").andExpect(status().isOk());
+
+    signUp("bob", "alice@example.com")
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Error: Email is already in use!"));
+    assertThat(userRepository.count()).isEqualTo(1);
+  }
+
+  private ResultActions signUp(final String username, final String email) throws Exception {
+    final SignupRequest request = new SignupRequest();
+    request.setUsername(username);
+    request.setEmail(email);
+    request.setPassword("secret123");
+    return mockMvc.perform(post("/api/auth/signup")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(request)));
+  }
+}
@@ -0,0 +1,90 @@
+package com.krterziev.kudosboards.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.repository.BoardRepository;
+import com.krterziev.kudosboards.repository.MessageRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BoardControllerETagTests {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  BoardRepository boardRepository;
+
+  @Autowired
+  MessageRepository messageRepository;
+
+  private Board board;
+
+  @BeforeEach
+  void seedBoard() {
+    boardRepository.deleteAll();
+    messageRepository.deleteAll();
+    board = boardRepository.save(
+        new Board("Board", List.of(), List.of(), EBoardAccessLevel.PUBLIC));
+  }
+
+  @Test
+  void unchangedBoardIsAnsweredWithNotModified() throws Exception {
+    final String etag = fetchETag();
+
+    final String body = mockMvc.perform(get("/api/boards/{id}", board.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andReturn().getResponse().getContentAsString();
+    assertThat(body).isEmpty();
+  }
+
+  @Test
+  void boardIsServedAgainOnceAMessageIsAdded() throws Exception {
+    final String etag = fetchETag();
+
+    mockMvc.perform(post("/api/boards/{boardId}/messages", board.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"text\":\"Thanks\"}"))
+        .andExpect(status().isCreated());
+
+    final String changed = mockMvc.perform(get("/api/boards/{id}", board.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(changed).isNotNull().isNotEqualTo(etag);
+  }
+
+  @Test
+  void missingBoardIsNotFoundWhateverTheETag() throws Exception {
+    boardRepository.delete(board);
+
+    mockMvc.perform(get("/api/boards/{id}", board.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+        .andExpect(status().isNotFound());
+  }
+
+  private String fetchETag() throws Exception {
+    final String etag = mockMvc.perform(get("/api/boards/{id}", board.getId()))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(etag).isNotNull();
+    return etag;
+  }
+}
@@ -0,0 +1,139 @@
+package com.krterziev.kudosboards.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.payload.request.BoardMembersRequest;
+import com.krterziev.kudosboards.repository.BoardRepository;
+import com.krterziev.kudosboards.repository.References;
+import com.krterziev.kudosboards.repository.UserRepository;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import com.krterziev.kudosboards.services.BoardMembers;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest(properties = "krterziev.app.boards.membersBatchMaxSize=5")
+@AutoConfigureMockMvc
+class BoardControllerMembersTests {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  BoardRepository boardRepository;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  BoardMembers boardMembers;
+
+  @Autowired
+  MongoTemplate mongoTemplate;
+
+  private User owner;
+  private User alice;
+
+  @BeforeEach
+  void seedUsers() {
+    mongoTemplate.remove(new Query(), BoardSummary.class);
+    boardRepository.deleteAll();
+    userRepository.deleteAll();
+    owner = userRepository.save(new User("owner", "owner@example.com", "secret"));
+    alice = userRepository.save(new User("alice", "alice@example.com", "secret"));
+  }
+
+  @Test
+  void reportsTheOutcomeForEachUserInOrder() throws Exception {
+    final Board board = saveBoard(true);
+    final String missing = new ObjectId().toHexString();
+
+    addUsers(board, alice.getId(), "not-an-id", missing, owner.getId(), alice.getId())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.added").value(1))
+        .andExpect(jsonPath("$.unchanged").value(2))
+        .andExpect(jsonPath("$.rejected").value(2))
+        .andExpect(jsonPath("$.results[*].status").value(List.of(201, 400, 404, 200, 200)))
+        .andExpect(jsonPath("$.results[2].userId").value(missing));
+
+    final Document stored = boardDocument(board);
+    assertThat(stored.getList("memberIds", String.class))
+        .containsExactlyInAnyOrder(owner.getId(), alice.getId());
+    assertThat(References.referencedIds(stored, "users")).hasSize(2);
+  }
+
+  @Test
+  void addsUsersToLegacyBoardsWithoutRecordingMemberIds() throws Exception {
+    final Board board = saveBoard(false);
+
+    addUsers(board, alice.getId())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].status").value(201));
+
+    final Document stored = boardDocument(board);
+    assertThat(stored.containsKey("memberIds")).isFalse();
+    assertThat(References.referencedIds(stored, "users")).hasSize(2);
+    assertThat(boardMembers.isMember(alice.getId(), board.getId())).isTrue();
+  }
+
+  @Test
+  void rejectsBatchesOverTheSizeLimit() throws Exception {
+    final Board board = saveBoard(true);
+
+    addUsers(board, alice.getId(), alice.getId(), alice.getId(), alice.getId(), alice.getId(),
+        alice.getId())
+        .andExpect(status().isBadRequest());
+
+    assertThat(boardDocument(board).getList("memberIds", String.class))
+        .containsExactly(owner.getId());
+  }
+
+  @Test
+  void answersNotFoundForAMissingBoard() throws Exception {
+    final Board board = new Board("Gone", List.of(), List.of(owner), EBoardAccessLevel.PRIVATE);
+    board.setId(new ObjectId().toHexString());
+
+    addUsers(board, alice.getId()).andExpect(status().isNotFound());
+  }
+
+  private Board saveBoard(final boolean recordMemberIds) {
+    final Board board = new Board("Team", List.of(), List.of(owner), EBoardAccessLevel.PRIVATE);
+    if (recordMemberIds) {
+      board.setMemberIds(List.of(owner.getId()));
+    }
+    return boardRepository.save(board);
+  }
+
+  private ResultActions addUsers(final Board board, final String... userIds) throws Exception {
+    return mockMvc.perform(post("/api/boards/{boardId}/users/batch", board.getId())
+        .with(user(UserDetailsImpl.build(owner)))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(new BoardMembersRequest(List.of(userIds)))));
+  }
+
+  private Document boardDocument(final Board board) {
+    return mongoTemplate.findById(new ObjectId(board.getId()), Document.class, "boards");
+  }
+}
@@ -0,0 +1,103 @@
+package com.krterziev.kudosboards.controllers;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.payload.request.IdRequest;
+import com.krterziev.kudosboards.repository.BoardRepository;
+import com.krterziev.kudosboards.repository.UserRepository;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BoardControllerPrivateBoardTests {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  ObjectMapper objectMapper;
+
+  @Autowired
+  BoardRepository boardRepository;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  MongoTemplate mongoTemplate;
+
+  private User owner;
+  private User outsider;
+
+  @BeforeEach
+  void seedUsers() {
+    mongoTemplate.remove(new Query(), BoardSummary.class);
+    boardRepository.deleteAll();
+    userRepository.deleteAll();
+    owner = userRepository.save(new User("owner", "owner@example.com", "secret"));
+    outsider = userRepository.save(new User("outsider", "outsider@example.com", "secret"));
+  }
+
+  @Test
+  void privateBoardIsVisibleToItsMembersOnly() throws Exception {
+    final Board board = savePrivateBoard(true);
+
+    getBoard(board, owner).andExpect(status().isOk());
+    getBoard(board, outsider).andExpect(status().isNotFound());
+    mockMvc.perform(get("/api/boards/{id}", board.getId())).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void legacyPrivateBoardIsVisibleToItsMembersOnly() throws Exception {
+    final Board board = savePrivateBoard(false);
+
+    getBoard(board, owner).andExpect(status().isOk());
+    getBoard(board, outsider).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void addedMemberSeesTheBoardAlthoughTheyWereDeniedBefore() throws Exception {
+    final Board board = savePrivateBoard(true);
+    getBoard(board, outsider).andExpect(status().isNotFound());
+
+    mockMvc.perform(put("/api/boards/{boardId}/users", board.getId())
+            .with(user(UserDetailsImpl.build(owner)))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new IdRequest(outsider.getId()))))
+        .andExpect(status().isOk());
+
+    getBoard(board, outsider).andExpect(status().isOk());
+  }
+
+  private Board savePrivateBoard(final boolean recordMemberIds) {
+    final Board board = new Board("Team", List.of(), List.of(owner), EBoardAccessLevel.PRIVATE);
+    if (recordMemberIds) {
+      board.setMemberIds(List.of(owner.getId()));
+    }
+    return boardRepository.save(board);
+  }
+
+  private ResultActions getBoard(final Board board, final User as) throws Exception {
+    return mockMvc.perform(get("/api/boards/{id}", board.getId())
+        .with(user(UserDetailsImpl.build(as))));
+  }
+}
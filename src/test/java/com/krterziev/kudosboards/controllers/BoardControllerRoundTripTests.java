@@ -0,0 +1,106 @@
+package com.krterziev.kudosboards.controllers;
+
+import static com.krterziev.kudosboards.metrics.MongoRoundTripFilter.ROUND_TRIPS_ATTRIBUTE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.repository.BoardRepository;
+import com.krterziev.kudosboards.repository.MessageRepository;
+import com.krterziev.kudosboards.repository.UserRepository;
+import com.krterziev.kudosboards.services.BoardSummaries;
+import com.krterziev.kudosboards.services.PublicBoardListing;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BoardControllerRoundTripTests {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  BoardRepository boardRepository;
+
+  @Autowired
+  MessageRepository messageRepository;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  BoardSummaries boardSummaries;
+
+  @Autowired
+  PublicBoardListing publicBoardListing;
+
+  @Autowired
+  MongoTemplate mongoTemplate;
+
+  @BeforeEach
+  void clean() {
+    mongoTemplate.remove(new Query(), BoardSummary.class);
+    boardRepository.deleteAll();
+    messageRepository.deleteAll();
+    userRepository.deleteAll();
+  }
+
+  @Test
+  void listingBoardsTakesConstantRoundTrips() throws Exception {
+    final User user = userRepository.save(new User("author", "author@example.com", "secret"));
+
+    seedPublicBoards(user, 2, 3);
+    final int fewBoards = roundTripsToListBoards();
+
+    seedPublicBoards(user, 20, 10);
+    final int manyBoards = roundTripsToListBoards();
+
+    assertThat(manyBoards).isEqualTo(fewBoards);
+  }
+
+  @Test
+  void anonymousListingIsServedFromMemory() throws Exception {
+    final User user = userRepository.save(new User("author", "author@example.com", "secret"));
+    seedPublicBoards(user, 3, 2);
+
+    assertThat(roundTripsToListBoards()).isPositive();
+    assertThat(roundTripsToListBoards()).isZero();
+  }
+
+  private void seedPublicBoards(final User user, final int boards, final int messagesPerBoard) {
+    for (int i = 0; i < boards; i++) {
+      final List<Message> messages = new ArrayList<>();
+      for (int j = 0; j < messagesPerBoard; j++) {
+        messages.add(messageRepository.save(
+            new Message(null, "Thanks " + j, null, Instant.now(), user)));
+      }
+      boardRepository.save(
+          new Board("Board " + i, messages, List.of(user), EBoardAccessLevel.PUBLIC));
+    }
+    boardSummaries.rebuildAll();
+    publicBoardListing.invalidate();
+  }
+
+  private int roundTripsToListBoards() throws Exception {
+    return (Integer) mockMvc.perform(get("/api/boards"))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getRequest()
+        .getAttribute(ROUND_TRIPS_ATTRIBUTE);
+  }
+}
@@ -0,0 +1,61 @@
+package com.krterziev.kudosboards.controllers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ImageControllerTests {
+
+  private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n',
+      0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Test
+  void rejectsSvg() throws Exception {
+    final String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>";
+    mockMvc.perform(multipart("/api/images").file(new MockMultipartFile("file", "kudos.svg",
+            "image/svg+xml", svg.getBytes(StandardCharsets.UTF_8))))
+        .andExpect(status().isUnsupportedMediaType());
+  }
+
+  @Test
+  void rejectsHtmlDeclaredAsPng() throws Exception {
+    final String html = "<html><script>alert(document.cookie)</script></html>";
+    mockMvc.perform(multipart("/api/images").file(new MockMultipartFile("file", "kudos.png",
+            "image/png", html.getBytes(StandardCharsets.UTF_8))))
+        .andExpect(status().isUnsupportedMediaType());
+  }
+
+  @Test
+  void storesPngUnderItsDetectedTypeAndServesItSandboxed() throws Exception {
+    final String body = mockMvc.perform(multipart("/api/images").file(
+            new MockMultipartFile("file", "kudos.png", "image/jpeg", PNG)))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.url").exists())
+        .andReturn().getResponse().getContentAsString();
+    final String url = JsonPath.read(body, "$.url");
+
+    mockMvc.perform(get(url))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "image/png"))
+        .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+        .andExpect(header().string("Content-Security-Policy", "sandbox"));
+  }
+}
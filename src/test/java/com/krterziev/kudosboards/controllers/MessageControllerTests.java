@@ -0,0 +1,84 @@
+package com.krterziev.kudosboards.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.repository.BoardRepository;
+import com.krterziev.kudosboards.repository.MessageRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MessageControllerTests {
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Autowired
+  BoardRepository boardRepository;
+
+  @Autowired
+  MessageRepository messageRepository;
+
+  @BeforeEach
+  void clean() {
+    boardRepository.deleteAll();
+    messageRepository.deleteAll();
+  }
+
+  @Test
+  void messageEditedBetweenPagesIsNeitherSkippedNorRepeated() throws Exception {
+    final Instant posted = Instant.now();
+    final Board board = boardRepository.save(
+        new Board("Board", List.of(), List.of(), EBoardAccessLevel.PUBLIC));
+    final List<Message> messages = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      // The second message has no lastUpdated, as messages written by older clients may not.
+      messages.add(messageRepository.save(
+          new Message(board.getId(), "Thanks " + i, null, i == 1 ? null : posted, null)));
+    }
+    board.setMessages(messages);
+    boardRepository.save(board);
+
+    final String firstPage = fetchPage(board.getId(), null);
+    assertThat(ids(firstPage)).containsExactly(messages.get(0).getId(), messages.get(1).getId());
+
+    final Message edited = messages.get(0);
+    edited.setText("Thanks again");
+    edited.setLastUpdated(posted.plus(Duration.ofHours(1)));
+    messageRepository.save(edited);
+
+    final String secondPage = fetchPage(board.getId(), JsonPath.read(firstPage, "$.nextCursor"));
+    assertThat(ids(secondPage)).containsExactly(messages.get(2).getId(), messages.get(3).getId());
+  }
+
+  private String fetchPage(final String boardId, final String cursor) throws Exception {
+    final MockHttpServletRequestBuilder request =
+        get("/api/boards/{boardId}/messages", boardId).param("limit", "2");
+    if (cursor != null) {
+      request.param("cursor", cursor);
+    }
+    return mockMvc.perform(request)
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+  }
+
+  private static List<String> ids(final String page) {
+    return JsonPath.read(page, "$.messages[*].id");
+  }
+}
@@ -0,0 +1,88 @@
+package com.krterziev.kudosboards.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.krterziev.kudosboards.models.ERole;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.repository.UserRepository;
+import com.krterziev.kudosboards.security.jwt.JwtUtils;
+import com.krterziev.kudosboards.security.services.RoleRegistry;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveAuthControllerRefreshTests {
+
+  @Autowired
+  WebTestClient webTestClient;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  RoleRegistry roleRegistry;
+
+  @Autowired
+  JwtUtils jwtUtils;
+
+  private UserDetailsImpl userDetails;
+
+  @BeforeEach
+  void seedUser() {
+    userRepository.deleteAll();
+    final User user = new User("alice", "alice@example.com", "secret");
+    user.setRoles(Set.of(roleRegistry.get(ERole.ROLE_USER)));
+    userDetails = UserDetailsImpl.build(userRepository.save(user));
+  }
+
+  @Test
+  void refreshedAccessTokenAuthenticatesRequests() {
+    final String refreshToken = jwtUtils.generateRefreshToken(userDetails);
+
+    final byte[] body = webTestClient.post().uri("/api/auth/refresh")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"refreshToken\":\"" + refreshToken + "\"}")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$.refreshToken").isEqualTo(refreshToken)
+        .returnResult().getResponseBody();
+    final String accessToken = JsonPath.read(new String(body, StandardCharsets.UTF_8),
+        "$.accessToken");
+
+    webTestClient.get().uri("/api/test/user")
+        .headers(headers -> headers.setBearerAuth(accessToken))
+        .exchange()
+        .expectStatus().isOk();
+  }
+
+  @Test
+  void refreshTokenCannotAuthenticateRequests() {
+    final String refreshToken = jwtUtils.generateRefreshToken(userDetails);
+
+    webTestClient.get().uri("/api/test/user")
+        .headers(headers -> headers.setBearerAuth(refreshToken))
+        .exchange()
+        .expectStatus().isUnauthorized();
+  }
+
+  @Test
+  void accessTokenCannotBeRefreshed() {
+    final String accessToken = jwtUtils.generateAccessToken(userDetails);
+
+    webTestClient.post().uri("/api/auth/refresh")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("{\"refreshToken\":\"" + accessToken + "\"}")
+        .exchange()
+        .expectStatus().isUnauthorized();
+  }
+}
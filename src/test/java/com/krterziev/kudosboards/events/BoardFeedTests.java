@@ -0,0 +1,93 @@
+package com.krterziev.kudosboards.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class BoardFeedTests {
+
+  private static final String STALLED_BOARD_ID = "6360f0b5c5d7a94f2e8c0001";
+  private static final String BOARD_ID = "6360f0b5c5d7a94f2e8c0002";
+
+  // One core sender and a short send timeout, so that a single stalled client would block
+  // every board if sends shared a fixed pool.
+  private final BoardFeed boardFeed = new BoardFeed(new ObjectMapper(), 16, 1, 4, 60, 30, 200);
+  private final StalledEmitter stalled = new StalledEmitter();
+
+  @AfterEach
+  void releaseStalledSend() {
+    stalled.release.countDown();
+    boardFeed.destroy();
+  }
+
+  @Test
+  void stalledSubscriberDoesNotHoldUpOtherBoards() throws Exception {
+    final RecordingEmitter recording = new RecordingEmitter();
+    boardFeed.subscribe(STALLED_BOARD_ID, stalled);
+    boardFeed.subscribe(BOARD_ID, recording);
+
+    boardFeed.onBoardEvent(BoardEvent.boardUpdated(STALLED_BOARD_ID));
+    assertThat(stalled.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    boardFeed.onBoardEvent(BoardEvent.boardUpdated(BOARD_ID));
+    assertThat(recording.sent.poll(5, TimeUnit.SECONDS)).isNotNull();
+  }
+
+  @Test
+  void stalledSubscriberIsDisconnectedAfterTheSendTimeout() throws Exception {
+    boardFeed.subscribe(STALLED_BOARD_ID, stalled);
+    boardFeed.onBoardEvent(BoardEvent.boardUpdated(STALLED_BOARD_ID));
+    assertThat(stalled.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    Thread.sleep(1_000);
+    for (int i = 0; i < 32; i++) {
+      boardFeed.onBoardEvent(BoardEvent.boardUpdated(STALLED_BOARD_ID));
+    }
+    stalled.release.countDown();
+
+    assertThat(stalled.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(stalled.sends).hasValue(1);
+  }
+
+  private static class StalledEmitter extends SseEmitter {
+
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch completed = new CountDownLatch(1);
+    final AtomicInteger sends = new AtomicInteger();
+
+    @Override
+    public void send(final SseEventBuilder builder) {
+      sends.incrementAndGet();
+      entered.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void complete() {
+      completed.countDown();
+    }
+  }
+
+  private static class RecordingEmitter extends SseEmitter {
+
+    final BlockingQueue<SseEventBuilder> sent = new LinkedBlockingQueue<>();
+
+    @Override
+    public void send(final SseEventBuilder builder) {
+      sent.add(builder);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.krterziev.kudosboards.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.User;
+import com.krterziev.kudosboards.repository.MessageRepository;
+import com.krterziev.kudosboards.security.services.UserDetailsImpl;
+import com.krterziev.kudosboards.services.BoardMessageWriter;
+import com.krterziev.kudosboards.services.MessageService;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Runs against an embedded single-node replica set, which is enough for change streams.
+ */
+@SpringBootTest(properties = {
+    "spring.mongodb.embedded.version=6.0.5",
+    "spring.mongodb.embedded.storage.repl-set-name=rs0",
+    "spring.data.mongodb.port=0",
+    "krterziev.app.events.changeStreams.enabled=true",
+    "krterziev.app.events.nodeId=test-node",
+    "krterziev.app.events.checkpointMillis=100"})
+@Import(ChangeStreamBoardEventBusTests.RecordingListener.class)
+class ChangeStreamBoardEventBusTests {
+
+  @Autowired
+  MongoTemplate mongoTemplate;
+
+  @Autowired
+  MessageRepository messageRepository;
+
+  @Autowired
+  BoardMessageWriter messageWriter;
+
+  @Autowired
+  MessageService messageService;
+
+  @Autowired
+  RecordingListener listener;
+
+  @BeforeEach
+  void awaitStream() throws InterruptedException {
+    // A node without a checkpoint starts from the present, so wait until the stream is open.
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (offset() == null && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+    listener.events.clear();
+  }
+
+  @AfterEach
+  void signOut() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void publishesMessageWrites() throws Exception {
+    final String boardId = createBoard();
+    final Message message = messageRepository.save(
+        new Message(boardId, "Well done", null, Instant.now(), null));
+    messageWriter.append(boardId, List.of(message));
+    assertThat(nextEvent()).extracting(BoardEvent::type, BoardEvent::boardId,
+        BoardEvent::messageId).containsExactly(EBoardEventType.MESSAGE_ADDED, boardId,
+        message.getId());
+
+    message.setText("Very well done");
+    messageRepository.save(message);
+    final BoardEvent updated = nextEvent();
+    assertThat(updated.type()).isEqualTo(EBoardEventType.MESSAGE_UPDATED);
+    assertThat(updated.message().getText()).isEqualTo("Very well done");
+
+    final User user = new User("alice", "alice@example.com", "secret");
+    user.setId("6360f0b5c5d7a94f2e8c0002");
+    final UserDetailsImpl userDetails = UserDetailsImpl.build(user);
+    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+        userDetails, null, userDetails.getAuthorities()));
+    messageService.deleteMessage(message.getId());
+    assertThat(nextEvent()).extracting(BoardEvent::type, BoardEvent::boardId,
+        BoardEvent::messageId).containsExactly(EBoardEventType.MESSAGE_DELETED, boardId,
+        message.getId());
+  }
+
+  @Test
+  void messageThatIsNeverAppendedIsNotPublished() throws InterruptedException {
+    final String boardId = createBoard();
+    messageRepository.save(new Message(boardId, "Lost", null, Instant.now(), null));
+
+    assertThat(listener.events.poll(1, TimeUnit.SECONDS)).isNull();
+  }
+
+  @Test
+  void checkpointsResumeTokenPerNode() throws InterruptedException {
+    final Object before = offset().get("resumeToken");
+    createBoard();
+
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (before.equals(offset().get("resumeToken")) && System.nanoTime() < deadline) {
+      Thread.sleep(50);
+    }
+    assertThat(offset().get("resumeToken")).isNotEqualTo(before);
+  }
+
+  /**
+   * Inserts a board and waits for its creation event, so that tests only see their own events.
+   */
+  private String createBoard() throws InterruptedException {
+    final Board board = mongoTemplate.insert(
+        new Board("Team", List.of(), List.of(), EBoardAccessLevel.PUBLIC));
+    assertThat(nextEvent()).extracting(BoardEvent::type, BoardEvent::boardId)
+        .containsExactly(EBoardEventType.BOARD_CREATED, board.getId());
+    return board.getId();
+  }
+
+  private BoardEvent nextEvent() throws InterruptedException {
+    final BoardEvent event = listener.events.poll(10, TimeUnit.SECONDS);
+    assertThat(event).isNotNull();
+    return event;
+  }
+
+  private Document offset() {
+    return mongoTemplate.findOne(Query.query(Criteria.where("_id").is("test-node")),
+        Document.class, ChangeStreamBoardEventBus.OFFSETS_COLLECTION);
+  }
+
+  static class RecordingListener {
+
+    final BlockingQueue<BoardEvent> events = new LinkedBlockingQueue<>();
+
+    @EventListener
+    void onBoardEvent(final BoardEvent event) {
+      events.add(event);
+    }
+  }
+}
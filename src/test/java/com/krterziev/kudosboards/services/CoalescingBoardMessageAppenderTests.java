@@ -0,0 +1,129 @@
+package com.krterziev.kudosboards.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.krterziev.kudosboards.models.EMessageStorage;
+import com.krterziev.kudosboards.models.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CoalescingBoardMessageAppenderTests {
+
+  private static final String BOARD_ID = "6360f0b5c5d7a94f2e8c0001";
+
+  private final RecordingWriter writer = new RecordingWriter();
+  private final ExecutorService callers = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void stopCallers() {
+    callers.shutdownNow();
+  }
+
+  @Test
+  void appendsToOneBoardAreWrittenTogether() throws Exception {
+    final CoalescingBoardMessageAppender appender = appender(60_000, 4, 60_000);
+
+    final List<CompletableFuture<Void>> appends = IntStream.range(0, 4)
+        .mapToObj(i -> CompletableFuture.runAsync(() -> append(appender, message(i)), callers))
+        .toList();
+    CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+    assertThat(writer.batches).hasSize(1);
+    assertThat(writer.batches.get(0)).hasSize(4);
+    appender.destroy();
+  }
+
+  @Test
+  void appendStillQueuedAfterTheTimeoutIsWrittenByItsCaller() throws Exception {
+    final CoalescingBoardMessageAppender appender = appender(60_000, 64, 100);
+
+    appender.append(BOARD_ID, message(0));
+
+    assertThat(writer.batches).hasSize(1);
+    appender.destroy();
+    // The final flush finds the append taken back and does not write it again.
+    assertThat(writer.batches).hasSize(1);
+  }
+
+  @Test
+  void appendAlreadyBeingWrittenWaitsForTheWritePastTheTimeout() throws Exception {
+    final CoalescingBoardMessageAppender appender = appender(1, 64, 100);
+    writer.release = new CountDownLatch(1);
+
+    final CompletableFuture<Void> append =
+        CompletableFuture.runAsync(() -> append(appender, message(0)), callers);
+    assertThat(writer.entered.await(5, TimeUnit.SECONDS)).isTrue();
+    Thread.sleep(300);
+    assertThat(append).isNotDone();
+    writer.release.countDown();
+
+    append.get(5, TimeUnit.SECONDS);
+    assertThat(writer.batches).hasSize(1);
+    appender.destroy();
+  }
+
+  @Test
+  void appendAfterShutdownIsWrittenDirectly() throws Exception {
+    final CoalescingBoardMessageAppender appender = appender(60_000, 64, 60_000);
+    appender.destroy();
+
+    appender.append(BOARD_ID, message(0));
+
+    assertThat(writer.batches).hasSize(1);
+  }
+
+  private CoalescingBoardMessageAppender appender(final long windowMillis, final int maxBatch,
+      final long timeoutMillis) {
+    return new CoalescingBoardMessageAppender(writer, new SimpleMeterRegistry(), windowMillis,
+        maxBatch, timeoutMillis);
+  }
+
+  private static void append(final CoalescingBoardMessageAppender appender,
+      final Message message) {
+    try {
+      appender.append(BOARD_ID, message);
+    } catch (Exception ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static Message message(final int i) {
+    final Message message = new Message(BOARD_ID, "kudos " + i, null, Instant.now(), null);
+    message.setId(String.format("6360f0b5c5d7a94f2e8c1%03d", i));
+    return message;
+  }
+
+  private static class RecordingWriter extends BoardMessageWriter {
+
+    final List<List<Message>> batches = new CopyOnWriteArrayList<>();
+    final CountDownLatch entered = new CountDownLatch(1);
+    volatile CountDownLatch release;
+
+    RecordingWriter() {
+      super(null, EMessageStorage.EMBEDDED, null);
+    }
+
+    @Override
+    public void append(final String boardId, final List<Message> messages) {
+      entered.countDown();
+      if (release != null) {
+        try {
+          release.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      batches.add(messages);
+    }
+  }
+}
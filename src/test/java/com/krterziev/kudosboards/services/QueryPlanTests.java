@@ -0,0 +1,146 @@
+package com.krterziev.kudosboards.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.krterziev.kudosboards.models.Board;
+import com.krterziev.kudosboards.models.BoardSummary;
+import com.krterziev.kudosboards.models.EBoardAccessLevel;
+import com.krterziev.kudosboards.models.ERole;
+import com.krterziev.kudosboards.models.Message;
+import com.krterziev.kudosboards.models.MessageCursor;
+import com.krterziev.kudosboards.models.RevokedToken;
+import com.krterziev.kudosboards.models.Role;
+import com.krterziev.kudosboards.models.User;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Explains the queries issued by the repositories and services against the indexes created at
+ * startup, and fails if any of them would scan a whole collection.
+ */
+@SpringBootTest
+class QueryPlanTests {
+
+  private static final String ID = new ObjectId().toHexString();
+
+  @Autowired
+  MongoTemplate mongoTemplate;
+
+  @Autowired
+  MongoMappingContext mappingContext;
+
+  @Test
+  void usersAreFoundByUsername() {
+    assertNoCollectionScan(Query.query(Criteria.where("username").is("author")), User.class);
+  }
+
+  @Test
+  void usersAreFoundByEmail() {
+    assertNoCollectionScan(Query.query(Criteria.where("email").is("author@example.com")),
+        User.class);
+  }
+
+  @Test
+  void rolesAreFoundByName() {
+    assertNoCollectionScan(Query.query(Criteria.where("name").is(ERole.ROLE_USER)), Role.class);
+  }
+
+  @Test
+  void boardsAreFoundByMember() {
+    assertNoCollectionScan(Query.query(Criteria.where("users.id").is(ID)), Board.class);
+  }
+
+  @Test
+  void boardsAreFoundByAccessLevel() {
+    assertNoCollectionScan(
+        Query.query(Criteria.where("accessLevel").is(EBoardAccessLevel.PUBLIC.toString())),
+        Board.class);
+  }
+
+  @Test
+  void boardMembershipIsCheckedById() {
+    assertNoCollectionScan(Query.query(Criteria.where("id").is(ID).and("memberIds").is(ID)),
+        Board.class);
+  }
+
+  @Test
+  void summariesAreListedByMember() {
+    assertNoCollectionScan(Query.query(Criteria.where("memberIds").is(ID))
+        .with(Sort.by(Sort.Direction.DESC, "lastActivity")), BoardSummary.class);
+  }
+
+  @Test
+  void summariesAreListedByAccessLevel() {
+    assertNoCollectionScan(Query.query(Criteria.where("accessLevel").is(EBoardAccessLevel.PUBLIC))
+        .with(Sort.by(Sort.Direction.DESC, "lastActivity")), BoardSummary.class);
+  }
+
+  @Test
+  void messagesArePagedByBoard() {
+    final Criteria byBoard = Criteria.where("boardId").is(ID);
+    assertNoCollectionScan(MessagePages.pageQuery(byBoard, null, 10), Message.class);
+    assertNoCollectionScan(MessagePages.pageQuery(byBoard,
+        new MessageCursor(new ObjectId().toHexString()), 10), Message.class);
+  }
+
+  @Test
+  void latestMessagesAreFoundByBoard() {
+    assertNoCollectionScan(Query.query(Criteria.where("boardId").is(ID))
+        .with(Sort.by(Sort.Direction.DESC, "id")), Message.class);
+  }
+
+  @Test
+  void revocationsAreReadIncrementally() {
+    assertNoCollectionScan(Query.query(Criteria.where("revokedAt").gte(Instant.now()))
+        .with(Sort.by(Sort.Direction.ASC, "revokedAt")), RevokedToken.class);
+  }
+
+  @Test
+  void unexpiredRevocationsAreRead() {
+    assertNoCollectionScan(Query.query(new Criteria().orOperator(
+        Criteria.where("expiresAt").gt(Instant.now()),
+        Criteria.where("expiresAt").is(null))), RevokedToken.class);
+  }
+
+  private void assertNoCollectionScan(final Query query, final Class<?> type) {
+    final MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(type);
+    final QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    final Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+    final Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+    final Document explained = mongoTemplate.getCollection(entity.getCollection())
+        .find(filter)
+        .sort(sort)
+        .explain();
+
+    final List<String> stages = new ArrayList<>();
+    collectStages(explained.get("queryPlanner", Document.class).get("winningPlan"), stages);
+    assertThat(stages)
+        .as("plan of %s on %s", filter.toJson(), entity.getCollection())
+        .isNotEmpty()
+        .doesNotContain("COLLSCAN");
+  }
+
+  private static void collectStages(final Object plan, final List<String> stages) {
+    if (plan instanceof Document stage) {
+      if (stage.get("stage") instanceof String name) {
+        stages.add(name);
+      }
+      stage.values().forEach(value -> collectStages(value, stages));
+    } else if (plan instanceof List<?> inputs) {
+      inputs.forEach(input -> collectStages(input, stages));
+    }
+  }
+}